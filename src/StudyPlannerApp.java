@@ -26,6 +26,8 @@ public class StudyPlannerApp extends Application {
     private UserDAO userDAO;
     private TaskDAO taskDAO;
     private FlashcardDAO flashcardDAO;
+    private AvailabilityDAO availabilityDAO;
+    private WriteBehindService writeBehind;
     private int currentUserId;
     
     private TaskManager taskManager;
@@ -47,13 +49,16 @@ public void start(Stage primaryStage) {
     userDAO = new UserDAO(dbManager);
     taskDAO = new TaskDAO(dbManager);
     flashcardDAO = new FlashcardDAO(dbManager);
+    availabilityDAO = new AvailabilityDAO(dbManager);
+    writeBehind = new WriteBehindService(dbManager, userDAO, taskDAO, flashcardDAO);
     
     // ===== 2. LOAD OR CREATE USER PROFILE =====
     System.out.println("👤 Loading user profile...");
     String username = "Student";
     userProfile = userDAO.loadUser(username);
+    boolean firstRun = userProfile == null;
     
-    if (userProfile == null) {
+    if (firstRun) {
         // First run - create new user
         System.out.println("🆕 First run detected - creating new user profile");
         userProfile = new UserProfile(username);
@@ -64,15 +69,16 @@ public void start(Stage primaryStage) {
         currentUserId = getCurrentUserId(username);
     }
     
+    // Jam belajar yang tersedia (default 09:00 - 22:00 jika belum pernah disimpan)
+    userProfile.setAvailability(availabilityDAO.loadAvailability(currentUserId));
+    
     // ===== 3. CREATE TASK MANAGER (BEFORE LOADING TASKS!) =====
     taskManager = new TaskManager();  // ✅ CREATE THIS FIRST!
     
     // ===== 4. LOAD TASKS FROM DATABASE =====
     System.out.println("📋 Loading tasks from database...");
     List<Task> loadedTasks = taskDAO.loadAllTasks(currentUserId);
-    for (Task task : loadedTasks) {
-        taskManager.addTask(task);
-    }
+    taskManager.addAll(loadedTasks); // satu event untuk semua task
     System.out.println("✅ Loaded " + loadedTasks.size() + " tasks");
     
     // ===== 5. LOAD SAMPLE DATA (ONLY IF EMPTY!) =====
@@ -80,6 +86,9 @@ public void start(Stage primaryStage) {
         System.out.println("📝 Loading sample data...");
         loadSampleData();  // ✅ NOW taskManager exists!
     }
+    if (firstRun) {
+        loadSampleDecks();
+    }
     
     // ===== 6. INITIALIZE CONTROLLER =====
     controller = new MainController(taskManager, userProfile);
@@ -130,7 +139,9 @@ public void start(Stage primaryStage) {
     // ===== 9. SETUP CLOSE HANDLER =====
     primaryStage.setOnCloseRequest(e -> {
         System.out.println("💾 Saving final data before exit...");
-        userDAO.updateUser(currentUserId, userProfile);
+        writeBehind.queueUserUpdate(currentUserId, userProfile);
+        writeBehind.shutdown();
+        availabilityDAO.saveAvailability(currentUserId, userProfile.getAvailability());
         dbManager.close();
         System.out.println("👋 Application closed successfully");
     });
@@ -139,7 +150,7 @@ public void start(Stage primaryStage) {
 }
     /**
      * ⭐ NEW: Setup auto-save observers untuk database
-     * Setiap perubahan langsung disimpan ke database
+     * Perubahan diantrikan ke WriteBehindService, digabung, lalu disimpan di background thread
      */
     private void setupAutoSaveObservers() {
         // Profile observer - save user data when changed
@@ -149,8 +160,8 @@ public void start(Stage primaryStage) {
                 javafx.application.Platform.runLater(() -> {
                     updateUserInfoLabel();
                     refreshCurrentView();
-                    // Auto-save to database
-                    userDAO.updateUser(currentUserId, userProfile);
+                    // Auto-save to database (write-behind)
+                    writeBehind.queueUserUpdate(currentUserId, userProfile);
                 });
             }
             
@@ -158,7 +169,7 @@ public void start(Stage primaryStage) {
             public void onStreakChanged(int newStreak) {
                 javafx.application.Platform.runLater(() -> {
                     refreshCurrentView();
-                    userDAO.updateUser(currentUserId, userProfile);
+                    writeBehind.queueUserUpdate(currentUserId, userProfile);
                 });
             }
             
@@ -167,7 +178,7 @@ public void start(Stage primaryStage) {
                 javafx.application.Platform.runLater(() -> {
                     showAchievementNotification(achievement);
                     refreshCurrentView();
-                    userDAO.updateUser(currentUserId, userProfile);
+                    writeBehind.queueUserUpdate(currentUserId, userProfile);
                 });
             }
             
@@ -175,18 +186,38 @@ public void start(Stage primaryStage) {
             public void onProductivityRecorded(int minutes) {
                 javafx.application.Platform.runLater(() -> {
                     refreshCurrentView();
-                    // Save productivity to database
-                    userDAO.saveProductivity(currentUserId, java.time.LocalDate.now(), minutes);
-                    userDAO.updateUser(currentUserId, userProfile);
+                    // Save today's total (not just this session) so coalesced writes stay correct
+                    java.time.LocalDate today = java.time.LocalDate.now();
+                    int todayMinutes = userProfile.getStudyMinutes(today);
+                    writeBehind.queueProductivity(currentUserId, today, todayMinutes);
+                    writeBehind.queueUserUpdate(currentUserId, userProfile);
                 });
             }
         });
         
         // Task observer - save tasks when changed
-        taskManager.addObserver(() -> {
-            System.out.println("💾 Auto-saving tasks to database...");
-            // This will be called when tasks are added/updated/deleted
-            // The actual save happens in the UI methods (add/edit/delete)
+        taskManager.addObserver(new TaskObserver() {
+            @Override
+            public void onTasksChanged() {
+                System.out.println("💾 Auto-saving tasks to database...");
+                // This will be called when tasks are added/updated/deleted
+                // The actual save happens in the UI methods (add/edit/delete)
+            }
+            
+            // Edge dependency disimpan langsung; task yang belum tersimpan (id 0) disimpan bersama task-nya
+            @Override
+            public void onDependencyAdded(Task task, Task prerequisite) {
+                if (task.getId() > 0 && prerequisite.getId() > 0) {
+                    taskDAO.saveDependency(task.getId(), prerequisite.getId());
+                }
+            }
+            
+            @Override
+            public void onDependencyRemoved(Task task, Task prerequisite) {
+                if (task.getId() > 0 && prerequisite.getId() > 0) {
+                    taskDAO.deleteDependency(task.getId(), prerequisite.getId());
+                }
+            }
         });
     }
     
@@ -194,8 +225,9 @@ public void start(Stage primaryStage) {
      * Get user ID from database
      */
     private int getCurrentUserId(String username) {
+        java.sql.Connection conn = null;
         try {
-            var conn = dbManager.getConnection();
+            conn = dbManager.borrowReader();
             var stmt = conn.prepareStatement("SELECT id FROM users WHERE username = ?");
             stmt.setString(1, username);
             var rs = stmt.executeQuery();
@@ -209,6 +241,8 @@ public void start(Stage primaryStage) {
             stmt.close();
         } catch (Exception e) {
             e.printStackTrace();
+        } finally {
+            dbManager.release(conn);
         }
         return -1;
     }
@@ -332,7 +366,12 @@ public void start(Stage primaryStage) {
         alert.setHeaderText("Smart Study Planner Database");
         
         String dbPath = dbManager.getDatabasePath();
+        writeBehind.flush(); // statistik dibaca dari database, jadi edit yang masih di antrian ditulis dulu
         var stats = taskDAO.getTaskStatistics(currentUserId);
+        var poolStats = dbManager.getPoolStatistics();
+        var storage = dbManager.getStorageInfo();
+        var queueStats = writeBehind.getStatistics();
+        var cacheStats = dbManager.getStatementCacheStatistics();
         
         String content = String.format("""
             📍 Database Location:
@@ -344,13 +383,38 @@ public void start(Stage primaryStage) {
             • In Progress: %d
             • Overdue: %d
             
+            ⚙ Storage Profile: %s
+            • Journal: %s • Synchronous: %s
+            
+            🔌 Connection Pool:
+            • Active: %d • Readers: %d/%d
+            • Borrows: %d • Max wait: %d ms
+            • Statement cache: %d hits / %d misses (%d%%)
+            
+            💾 Write-behind Queue:
+            • Queued: %d • Coalesced: %d • Flushed: %d
+            
             💡 Tip: Your data is automatically saved!
             """, 
             dbPath,
             stats.getOrDefault("total", 0),
             stats.getOrDefault("completed", 0),
             stats.getOrDefault("in_progress", 0),
-            stats.getOrDefault("overdue", 0)
+            stats.getOrDefault("overdue", 0),
+            storage.get("profile"),
+            storage.get("journal_mode"),
+            storage.get("synchronous"),
+            poolStats.get("active"),
+            poolStats.get("open_readers"),
+            poolStats.get("max_readers"),
+            poolStats.get("borrows"),
+            poolStats.get("max_wait_ms"),
+            cacheStats.get("hits"),
+            cacheStats.get("misses"),
+            cacheStats.get("hit_rate_percent"),
+            queueStats.get("queued"),
+            queueStats.get("coalesced"),
+            queueStats.get("flushed")
         );
         
         alert.setContentText(content);
@@ -432,14 +496,14 @@ public void start(Stage primaryStage) {
             contentArea.getChildren().clear();
             // Pass TaskDAO to TasksView for database operations
             contentArea.getChildren().add(
-                new TasksViewWithDB(taskManager, controller, taskDAO, currentUserId).getView()
+                new TasksViewWithDB(taskManager, controller, taskDAO, writeBehind, currentUserId).getView()
             );
             updateSelectedButton(sidebar, tasksBtn);
         });
 
         calendarBtn.setOnAction(e -> {
             contentArea.getChildren().clear();
-            contentArea.getChildren().add(new CalendarView(taskManager).getView());
+            contentArea.getChildren().add(new CalendarView(taskManager, userProfile.getAvailability(), availabilityDAO, currentUserId).getView());
             updateSelectedButton(sidebar, calendarBtn);
         });
 
@@ -451,7 +515,7 @@ public void start(Stage primaryStage) {
 
         flashcardsBtn.setOnAction(e -> {
             contentArea.getChildren().clear();
-            contentArea.getChildren().add(new FlashcardsView().getView());
+            contentArea.getChildren().add(new FlashcardsView(flashcardDAO, writeBehind, currentUserId).getView());
             updateSelectedButton(sidebar, flashcardsBtn);
         });
     }
@@ -489,6 +553,25 @@ public void start(Stage primaryStage) {
         System.out.println("✅ Sample data loaded and saved to database");
     }
 
+    // Deck contoh untuk user baru (disimpan sekali saat user pertama kali dibuat)
+    private void loadSampleDecks() {
+        // Sample deck 1: Java Programming
+        Deck javaDeck = new Deck("Java Programming", "Core Java concepts and syntax");
+        javaDeck.addCard(new Flashcard("What is polymorphism?", "The ability of objects to take many forms. Allows methods to do different things based on the object."));
+        javaDeck.addCard(new Flashcard("What is encapsulation?", "Bundling data and methods that operate on that data within a single unit (class)."));
+        javaDeck.addCard(new Flashcard("What is inheritance?", "Mechanism where a new class inherits properties and methods from an existing class."));
+        flashcardDAO.saveDeckWithCards(currentUserId, javaDeck, null);
+        
+        // Sample deck 2: Data Structures
+        Deck dsDeck = new Deck("Data Structures", "Common data structures and algorithms");
+        dsDeck.addCard(new Flashcard("What is Big O notation?", "Mathematical notation to describe algorithm complexity in terms of time or space."));
+        dsDeck.addCard(new Flashcard("What is a Stack?", "LIFO (Last In First Out) data structure with push and pop operations."));
+        dsDeck.addCard(new Flashcard("What is a Queue?", "FIFO (First In First Out) data structure with enqueue and dequeue operations."));
+        flashcardDAO.saveDeckWithCards(currentUserId, dsDeck, null);
+        
+        System.out.println("✅ Sample decks saved to database");
+    }
+    
     public static void main(String[] args) {
         launch(args);
     }
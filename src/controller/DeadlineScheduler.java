@@ -0,0 +1,296 @@
+package controller;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import model.*;
+
+// Penjadwal yang menghormati due date, urutan dependensi, beban harian maksimal dan ukuran blok
+// 1. Deadline efektif: due date tugas, dikurangi waktu kerja tugas-tugas yang bergantung padanya.
+// 2. Earliest-deadline-first per blok di atas slot bebas kalender ketersediaan; tugas baru
+//    masuk antrian setelah semua prerequisite-nya selesai dijadwalkan.
+// 3. Perbaikan slack: blok tugas yang terlambat ditukar dengan blok lebih awal milik tugas
+//    yang masih punya slack cukup untuk menyerap pergeseran.
+// Semua waktu dihitung dalam menit sejak epoch (waktu lokal), LocalDateTime hanya untuk output.
+class DeadlineScheduler {
+    private static final int MAX_REPAIR_PASSES = 3;
+
+    private final TaskManager taskManager;
+    private final AvailabilityCalendar availability;
+
+    // state satu kali penjadwalan, index = posisi tugas dalam urutan topologis
+    private List<Task> tasks;
+    private long[] work;
+    private long[] due;
+    private long[] deadline;
+    private int[] priority;
+    private int[][] prerequisites;
+    private int[][] dependents;
+
+    private int blockCount;
+    private int[] blockTask = new int[64];
+    private long[] blockStart = new long[64];
+    private long[] blockEnd = new long[64];
+
+    DeadlineScheduler(TaskManager taskManager, AvailabilityCalendar availability) {
+        this.taskManager = taskManager;
+        this.availability = availability;
+    }
+
+    // Hanya untuk schedule(snapshot, ...), mis. skenario what-if yang berjalan di thread lain
+    DeadlineScheduler(AvailabilityCalendar availability) {
+        this(null, availability);
+    }
+
+    ScheduleResult schedule(ScheduleOptions options) {
+        return schedule(SchedulingSnapshot.capture(taskManager), options);
+    }
+
+    // Jadwalkan dari snapshot yang sudah dibekukan; tidak membaca TaskManager sama sekali,
+    // jadi aman dipanggil dari thread lain (satu instance DeadlineScheduler per thread)
+    ScheduleResult schedule(SchedulingSnapshot snapshot, ScheduleOptions options) {
+        LocalDateTime from = options.getStart();
+        LocalDateTime to = from.plusDays(options.getHorizonDays());
+        load(snapshot);
+        computeEffectiveDeadlines();
+
+        long[] remaining = work.clone();
+        FreeTimeline timeline = FreeTimeline.fromAvailability(availability, from, to,
+            blockedSlots(snapshot, options));
+        allocate(timeline, options, remaining);
+        repair();
+
+        return buildResult(remaining, FreeTimeline.toEpochMinute(to));
+    }
+
+    // Ambil state satu kali penjadwalan dari snapshot (array snapshot hanya dibaca, tidak diubah)
+    private void load(SchedulingSnapshot snapshot) {
+        tasks = snapshot.tasks;
+        work = snapshot.work;
+        due = snapshot.due;
+        priority = snapshot.priority;
+        prerequisites = snapshot.prerequisites;
+        dependents = snapshot.dependents;
+        blockCount = 0;
+    }
+
+    // Slot yang tidak boleh dipakai di dalam horizon: waktu ujian dan hari yang dilewati
+    static Map<LocalDate, long[]> blockedSlots(SchedulingSnapshot snapshot, ScheduleOptions options) {
+        LocalDateTime from = options.getStart();
+        LocalDateTime to = from.plusDays(options.getHorizonDays());
+        Map<LocalDate, long[]> blocked = SmartScheduler.examCommitments(snapshot.examTimes, from, to);
+        if (options.hasSkippedDays()) {
+            long[] wholeDay = AvailabilityCalendar.rangeMask(0, AvailabilityCalendar.SLOTS_PER_DAY);
+            for (LocalDate date = from.toLocalDate(); !date.isAfter(to.toLocalDate()); date = date.plusDays(1)) {
+                if (options.isSkipped(date)) blocked.put(date, wholeDay.clone());
+            }
+        }
+        return blocked;
+    }
+
+    // Prerequisite harus selesai sebelum tugas yang bergantung padanya bisa dikerjakan tepat waktu
+    private void computeEffectiveDeadlines() {
+        int n = tasks.size();
+        deadline = due.clone();
+        for (int i = n - 1; i >= 0; i--) {
+            for (int d : dependents[i]) {
+                deadline[i] = Math.min(deadline[i], deadline[d] - work[d]);
+            }
+        }
+    }
+
+    // EDF per blok; 'remaining' dikurangi sampai tersisa pekerjaan yang tidak muat di horizon
+    private void allocate(FreeTimeline timeline, ScheduleOptions options, long[] remaining) {
+        int n = tasks.size();
+        int[] waitingOn = new int[n];
+
+        PriorityQueue<Integer> ready = new PriorityQueue<>((a, b) -> {
+            if (deadline[a] != deadline[b]) return Long.compare(deadline[a], deadline[b]);
+            int byPriority = Integer.compare(priority[b], priority[a]);
+            if (byPriority != 0) return byPriority;
+            return Integer.compare(a, b);
+        });
+        for (int i = 0; i < n; i++) {
+            for (int p : prerequisites[i]) {
+                if (remaining[p] > 0) waitingOn[i]++;
+            }
+            if (waitingOn[i] == 0 && remaining[i] > 0) ready.add(i);
+        }
+
+        long maxDaily = options.getMaxDailyMinutes() > 0 ? options.getMaxDailyMinutes() : Long.MAX_VALUE;
+        long blockMinutes = Math.max(1, options.getBlockMinutes());
+        long minBlock = Math.max(1, Math.min(options.getMinBlockMinutes(), blockMinutes));
+        long currentDay = Long.MIN_VALUE;
+        long usedToday = 0;
+
+        while (!ready.isEmpty() && !timeline.isEmpty()) {
+            long start = timeline.peekStart();
+            long day = Math.floorDiv(start, 1440);
+            if (day != currentDay) {
+                currentDay = day;
+                usedToday = 0;
+            }
+            long dayLeft = maxDaily - usedToday;
+            long windowLeft = timeline.peekEnd() - start;
+
+            int task = ready.peek();
+            long size = Math.min(Math.min(blockMinutes, remaining[task]), Math.min(dayLeft, windowLeft));
+            if (size < minBlock && size < remaining[task]) {
+                // sisa jendela atau sisa beban hari ini terlalu kecil untuk blok yang berguna
+                timeline.skipTo(windowLeft <= dayLeft ? timeline.peekEnd() : (day + 1) * 1440);
+                continue;
+            }
+
+            ready.poll();
+            timeline.skipTo(start + size);
+            addBlock(task, start, start + size);
+            usedToday += size;
+            remaining[task] -= size;
+
+            if (remaining[task] > 0) {
+                ready.add(task);
+            } else {
+                for (int d : dependents[task]) {
+                    if (--waitingOn[d] == 0) ready.add(d);
+                }
+            }
+        }
+    }
+
+    private void addBlock(int task, long start, long end) {
+        if (blockCount == blockTask.length) {
+            int capacity = blockCount * 2;
+            blockTask = Arrays.copyOf(blockTask, capacity);
+            blockStart = Arrays.copyOf(blockStart, capacity);
+            blockEnd = Arrays.copyOf(blockEnd, capacity);
+        }
+        blockTask[blockCount] = task;
+        blockStart[blockCount] = start;
+        blockEnd[blockCount] = end;
+        blockCount++;
+    }
+
+    // Tukar blok terlambat dengan blok lebih awal yang sama panjang, jika pemilik blok awal
+    // masih tepat waktu setelah bergeser dan urutan dependensi tetap terjaga
+    private void repair() {
+        int n = tasks.size();
+        long[] finish = new long[n];
+        long[] firstStart = new long[n];
+
+        for (int pass = 0; pass < MAX_REPAIR_PASSES; pass++) {
+            computeSpans(finish, firstStart);
+            boolean improved = false;
+
+            // blok terlambat, dari yang paling akhir
+            for (int late = blockCount - 1; late >= 0; late--) {
+                int lateTask = blockTask[late];
+                if (blockEnd[late] <= due[lateTask]) continue;
+
+                long earliest = 0; // tugas terlambat tidak boleh mulai sebelum prerequisite-nya selesai
+                for (int p : prerequisites[lateTask]) {
+                    earliest = Math.max(earliest, finish[p]);
+                }
+
+                for (int early = late - 1; early >= 0; early--) {
+                    if (blockStart[early] < earliest) break;
+                    int other = blockTask[early];
+                    if (other == lateTask || blockEnd[early] > due[lateTask]) continue;
+                    if (blockEnd[early] - blockStart[early] != blockEnd[late] - blockStart[late]) continue;
+                    if (!canAbsorb(other, blockEnd[late], finish, firstStart)) continue;
+
+                    blockTask[early] = lateTask;
+                    blockTask[late] = other;
+                    computeSpans(finish, firstStart);
+                    improved = true;
+                    break;
+                }
+            }
+            if (!improved) break;
+        }
+    }
+
+    // Apakah tugas bisa selesai paling cepat pada newFinish tanpa terlambat
+    // dan tanpa mendahului tugas yang bergantung padanya
+    private boolean canAbsorb(int task, long newFinish, long[] finish, long[] firstStart) {
+        long finishAfter = Math.max(finish[task], newFinish);
+        if (finishAfter > due[task]) return false;
+        for (int d : dependents[task]) {
+            if (firstStart[d] < finishAfter) return false;
+        }
+        return true;
+    }
+
+    private void computeSpans(long[] finish, long[] firstStart) {
+        Arrays.fill(finish, Long.MIN_VALUE);
+        Arrays.fill(firstStart, Long.MAX_VALUE);
+        for (int b = 0; b < blockCount; b++) {
+            int task = blockTask[b];
+            finish[task] = Math.max(finish[task], blockEnd[b]);
+            firstStart[task] = Math.min(firstStart[task], blockStart[b]);
+        }
+    }
+
+    private ScheduleResult buildResult(long[] remaining, long horizonEnd) {
+        int n = tasks.size();
+
+        // gabungkan blok berurutan milik tugas yang sama
+        List<ScheduledBlock> blocks = new ArrayList<>();
+        long[] finish = new long[n];
+        long[] scheduled = new long[n];
+        Arrays.fill(finish, Long.MIN_VALUE);
+        int b = 0;
+        while (b < blockCount) {
+            int task = blockTask[b];
+            long start = blockStart[b];
+            long end = blockEnd[b];
+            scheduled[task] += end - start;
+            b++;
+            while (b < blockCount && blockTask[b] == task && blockStart[b] == end) {
+                end = blockEnd[b];
+                scheduled[task] += end - blockStart[b];
+                b++;
+            }
+            finish[task] = Math.max(finish[task], end);
+            blocks.add(new ScheduledBlock(tasks.get(task), FreeTimeline.toDateTime(start), FreeTimeline.toDateTime(end)));
+        }
+
+        List<ScheduleResult.TaskReport> reports = new ArrayList<>(n);
+        boolean[] incomplete = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            ScheduleResult.Feasibility feasibility;
+            long lateness = 0;
+            boolean waiting = false;
+            for (int p : prerequisites[i]) {
+                waiting |= incomplete[p];
+            }
+
+            if (remaining[i] > 0) {
+                incomplete[i] = true;
+                if (deadline[i] >= horizonEnd) {
+                    // sisa pekerjaan bisa dilanjutkan setelah horizon tanpa melewati deadline (efektif)
+                    feasibility = ScheduleResult.Feasibility.AFTER_HORIZON;
+                } else {
+                    feasibility = waiting && scheduled[i] == 0
+                        ? ScheduleResult.Feasibility.BLOCKED : ScheduleResult.Feasibility.UNSCHEDULED;
+                }
+            } else if (finish[i] > due[i]) {
+                feasibility = ScheduleResult.Feasibility.LATE;
+                lateness = finish[i] - due[i];
+            } else {
+                feasibility = ScheduleResult.Feasibility.ON_TIME;
+            }
+
+            reports.add(new ScheduleResult.TaskReport(
+                tasks.get(i),
+                feasibility,
+                FreeTimeline.toDateTime(deadline[i]),
+                remaining[i] == 0 && scheduled[i] > 0 ? FreeTimeline.toDateTime(finish[i]) : null,
+                scheduled[i],
+                remaining[i],
+                lateness
+            ));
+        }
+        return new ScheduleResult(blocks, reports);
+    }
+}
@@ -0,0 +1,125 @@
+package controller;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Map;
+
+import model.AvailabilityCalendar;
+import model.Task;
+
+// Daftar jendela waktu luang yang terurut, disimpan sebagai menit sejak epoch (waktu lokal)
+// Jendela dibangun dari bitmap slot AvailabilityCalendar.
+// Blok jadwal dipotong langsung dari jendela paling awal, jadi biaya penjadwalan
+// sebanding dengan jumlah blok, bukan jumlah jam dalam horizon.
+final class FreeTimeline {
+    private final long[] starts;
+    private final long[] ends;
+    private final int count;
+    private int head; // jendela pertama yang masih punya sisa waktu
+
+    private FreeTimeline(long[] starts, long[] ends, int count) {
+        this.starts = starts;
+        this.ends = ends;
+        this.count = count;
+    }
+
+    // Jendela waktu luang dari bitmap ketersediaan antara 'from' dan 'to'
+    // Setiap run slot bebas yang berurutan menjadi satu jendela; extraBusy (boleh null)
+    // berisi mask slot tambahan per tanggal yang tidak boleh dipakai, mis. jadwal ujian.
+    static FreeTimeline fromAvailability(AvailabilityCalendar calendar, LocalDateTime from, LocalDateTime to,
+                                         Map<LocalDate, long[]> extraBusy) {
+        int slotMinutes = AvailabilityCalendar.SLOT_MINUTES;
+        long fromMinute = toEpochMinute(from);
+        long toMinute = toEpochMinute(to);
+        int days = (int) Math.max(0, to.toLocalDate().toEpochDay() - from.toLocalDate().toEpochDay() + 1);
+        long[] starts = new long[Math.max(1, days * 2)];
+        long[] ends = new long[starts.length];
+        int count = 0;
+
+        LocalDate date = from.toLocalDate();
+        for (int i = 0; i < days; i++, date = date.plusDays(1)) {
+            long dayStart = date.toEpochDay() * 1440;
+            long[] free = calendar.getFreeSlots(date);
+            long[] blocked = extraBusy == null ? null : extraBusy.get(date);
+            if (blocked != null) {
+                free[0] &= ~blocked[0];
+                free[1] &= ~blocked[1];
+            }
+            // hanya slot yang seluruhnya berada di dalam [from, to)
+            int firstSlot = (int) Math.max(0, -Math.floorDiv(dayStart - fromMinute, slotMinutes));
+            int lastSlot = (int) Math.min(AvailabilityCalendar.SLOTS_PER_DAY, Math.floorDiv(toMinute - dayStart, slotMinutes));
+
+            int slot = AvailabilityCalendar.findRun(free, firstSlot, 1);
+            while (slot >= 0 && slot < lastSlot) {
+                int runEnd = Math.min(lastSlot, slot + AvailabilityCalendar.runLength(free, slot));
+                if (count == starts.length) {
+                    starts = Arrays.copyOf(starts, count * 2);
+                    ends = Arrays.copyOf(ends, count * 2);
+                }
+                starts[count] = dayStart + (long) slot * slotMinutes;
+                ends[count] = dayStart + (long) runEnd * slotMinutes;
+                count++;
+                slot = AvailabilityCalendar.findRun(free, runEnd, 1);
+            }
+        }
+        return new FreeTimeline(starts, ends, count);
+    }
+
+    boolean isEmpty() {
+        return head >= count;
+    }
+
+    // Potong blok sepanjang maksimal maxMinutes dari jendela paling awal;
+    // blok tidak melewati akhir jendela. Null jika waktu luang sudah habis.
+    ScheduledBlock take(Task task, long maxMinutes) {
+        if (isEmpty() || maxMinutes <= 0) return null;
+        long start = starts[head];
+        long end = Math.min(ends[head], start + maxMinutes);
+        if (end == ends[head]) {
+            head++;
+        } else {
+            starts[head] = end;
+        }
+        return new ScheduledBlock(task, toDateTime(start), toDateTime(end));
+    }
+
+    // Awal dan akhir jendela paling awal yang masih tersisa (pastikan !isEmpty())
+    long peekStart() {
+        return starts[head];
+    }
+
+    long peekEnd() {
+        return ends[head];
+    }
+
+    // Buang waktu luang sebelum 'minute' (mis. sisa hari yang sudah mencapai beban maksimal)
+    void skipTo(long minute) {
+        while (head < count && ends[head] <= minute) {
+            head++;
+        }
+        if (head < count && starts[head] < minute) {
+            starts[head] = minute;
+        }
+    }
+
+    // Total waktu luang yang tersisa per hari, index 0 = epoch day firstDay
+    // (jendela tidak pernah melewati tengah malam karena dibangun per tanggal)
+    long[] minutesPerDay(long firstDay, int days) {
+        long[] minutes = new long[days];
+        for (int w = head; w < count; w++) {
+            long day = Math.floorDiv(starts[w], 1440) - firstDay;
+            if (day >= 0 && day < days) minutes[(int) day] += ends[w] - starts[w];
+        }
+        return minutes;
+    }
+
+    static long toEpochMinute(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    static LocalDateTime toDateTime(long epochMinute) {
+        return LocalDateTime.ofEpochSecond(epochMinute * 60, 0, ZoneOffset.UTC);
+    }
+}
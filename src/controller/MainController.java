@@ -7,11 +7,19 @@ public class MainController {
     private TaskManager taskManager;
     private UserProfile userProfile;
     private SmartScheduler scheduler;
+    private WhatIfAnalyzer whatIfAnalyzer;
+    private StudyStatistics statistics; // satu instance supaya cache per versi snapshot terpakai
     
     public MainController(TaskManager taskManager, UserProfile userProfile) {
         this.taskManager = taskManager;
         this.userProfile = userProfile;
         this.scheduler = new SmartScheduler(taskManager, userProfile);
+        this.whatIfAnalyzer = new WhatIfAnalyzer(taskManager, userProfile);
+        this.statistics = new StudyStatistics(userProfile, taskManager);
+        
+        // Counter achievement tugas diambil dari tugas yang sudah dimuat
+        userProfile.restoreTaskCounters(taskManager.countByStatus(TaskStatus.COMPLETED),
+            getStatistics().getOnTimeCompletionCount());
     }
     
     
@@ -47,44 +55,8 @@ public class MainController {
         userProfile.addXP(xpReward);
         userProfile.updateStreak();
         
-        // Check achievements
-        checkFirstStepsAchievement();
-        checkPerfectionistAchievement();
-    }
-    
-
-    private void checkFirstStepsAchievement() {
-        Achievement firstSteps = userProfile.getAchievements().stream()
-            .filter(a -> a.getName().equals("First Steps"))
-            .findFirst()
-            .orElse(null);
-        
-        if (firstSteps != null && !firstSteps.isUnlocked()) {
-            if (taskManager.getTasksByStatus(TaskStatus.COMPLETED).size() >= 1) {
-                firstSteps.unlock();
-                userProfile.addXP(firstSteps.getXpReward());
-                System.out.println("🏆 Achievement unlocked: First Steps!");
-            }
-        }
-    }
-    
-    private void checkPerfectionistAchievement() {
-        Achievement perfectionist = userProfile.getAchievements().stream()
-            .filter(a -> a.getName().equals("Perfectionist"))
-            .findFirst()
-            .orElse(null);
-        
-        if (perfectionist != null && !perfectionist.isUnlocked()) {
-            long onTimeCount = taskManager.getTasksByStatus(TaskStatus.COMPLETED).stream()
-                .filter(t -> t.getActualHours() <= t.getEstimatedHours())
-                .count();
-            
-            if (onTimeCount >= 10) {
-                perfectionist.unlock();
-                userProfile.addXP(perfectionist.getXpReward());
-                System.out.println("🏆 Achievement unlocked: Perfectionist!");
-            }
-        }
+        // Check achievements (First Steps, Perfectionist)
+        userProfile.recordTaskCompleted(task.getActualHours() <= task.getEstimatedHours());
     }
     
     private int calculateXPReward(Task task) {
@@ -129,12 +101,21 @@ public class MainController {
         return scheduler.generateSchedule(days);
     }
     
+    public ScheduleResult generateDeadlineSchedule(ScheduleOptions options) {
+        return scheduler.generateDeadlineSchedule(options);
+    }
+    
+    // Bandingkan beberapa skenario jadwal (opsi berbeda, tambahan jam, hari yang dilewati) secara paralel
+    public List<WhatIfAnalyzer.Outcome> compareScenarios(List<WhatIfAnalyzer.Scenario> scenarios) {
+        return whatIfAnalyzer.compare(scenarios);
+    }
+    
     public List<Task> getRecommendedTasksForNow() {
         return scheduler.getRecommendedTasks(3);
     }
 
     public StudyStatistics getStatistics() {
-        return new StudyStatistics(userProfile, taskManager);
+        return statistics;
     }
     
     public TaskManager getTaskManager() {
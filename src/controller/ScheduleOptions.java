@@ -0,0 +1,98 @@
+package controller;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+
+// Parameter untuk DeadlineScheduler
+// Nilai default: mulai sekarang, horizon 14 hari, blok 2 jam (minimal 30 menit), maksimal 6 jam per hari,
+// tanpa hari libur tambahan (hari yang dilewati tidak dipakai belajar sama sekali).
+public class ScheduleOptions {
+    private LocalDateTime start;
+    private int horizonDays;
+    private int blockMinutes;
+    private int minBlockMinutes;
+    private int maxDailyMinutes;
+    private final Set<DayOfWeek> skippedDays = EnumSet.noneOf(DayOfWeek.class);
+    private final Set<LocalDate> skippedDates = new HashSet<>();
+    
+    public ScheduleOptions() {
+        this.start = LocalDateTime.now();
+        this.horizonDays = 14;
+        this.blockMinutes = 120;
+        this.minBlockMinutes = 30;
+        this.maxDailyMinutes = 6 * 60;
+    }
+    
+    public ScheduleOptions copy() {
+        ScheduleOptions copy = new ScheduleOptions();
+        copy.start = start;
+        copy.horizonDays = horizonDays;
+        copy.blockMinutes = blockMinutes;
+        copy.minBlockMinutes = minBlockMinutes;
+        copy.maxDailyMinutes = maxDailyMinutes;
+        copy.skippedDays.addAll(skippedDays);
+        copy.skippedDates.addAll(skippedDates);
+        return copy;
+    }
+    
+    public LocalDateTime getStart() {
+        return start;
+    }
+    
+    public void setStart(LocalDateTime start) {
+        this.start = start;
+    }
+    
+    public int getHorizonDays() {
+        return horizonDays;
+    }
+    
+    public void setHorizonDays(int horizonDays) {
+        this.horizonDays = horizonDays;
+    }
+    
+    public int getBlockMinutes() {
+        return blockMinutes;
+    }
+    
+    public void setBlockMinutes(int blockMinutes) {
+        this.blockMinutes = blockMinutes;
+    }
+    
+    public int getMinBlockMinutes() {
+        return minBlockMinutes;
+    }
+    
+    public void setMinBlockMinutes(int minBlockMinutes) {
+        this.minBlockMinutes = minBlockMinutes;
+    }
+    
+    public int getMaxDailyMinutes() {
+        return maxDailyMinutes;
+    }
+    
+    public void setMaxDailyMinutes(int maxDailyMinutes) {
+        this.maxDailyMinutes = maxDailyMinutes;
+    }
+    
+    // Lewati hari tertentu setiap minggu, mis. "tidak belajar hari Sabtu"
+    public void skipDay(DayOfWeek day) {
+        skippedDays.add(day);
+    }
+    
+    public void skipDate(LocalDate date) {
+        skippedDates.add(date);
+    }
+    
+    public boolean isSkipped(LocalDate date) {
+        return skippedDays.contains(date.getDayOfWeek()) || skippedDates.contains(date);
+    }
+    
+    public boolean hasSkippedDays() {
+        return !skippedDays.isEmpty() || !skippedDates.isEmpty();
+    }
+}
@@ -0,0 +1,116 @@
+package controller;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+import model.Task;
+
+// Hasil DeadlineScheduler: blok jadwal plus laporan kelayakan per tugas
+public class ScheduleResult {
+    public enum Feasibility {
+        ON_TIME,      // selesai sebelum due date
+        LATE,         // terjadwal penuh tetapi selesai setelah due date
+        UNSCHEDULED,  // sebagian pekerjaan tidak muat di dalam horizon sebelum deadline
+        BLOCKED,      // menunggu prerequisite yang tidak selesai di dalam horizon
+        AFTER_HORIZON // belum selesai di akhir horizon, tetapi deadline-nya baru sesudah horizon
+    }
+    
+    // Laporan satu tugas
+    public static class TaskReport {
+        private final Task task;
+        private final Feasibility feasibility;
+        private final LocalDateTime effectiveDeadline; // due date dikurangi waktu yang dibutuhkan tugas sesudahnya
+        private final LocalDateTime plannedFinish;     // null jika tidak terjadwal penuh atau tidak ada sisa pekerjaan
+        private final long scheduledMinutes;
+        private final long unscheduledMinutes;
+        private final long latenessMinutes;
+        
+        TaskReport(Task task, Feasibility feasibility, LocalDateTime effectiveDeadline, LocalDateTime plannedFinish,
+                   long scheduledMinutes, long unscheduledMinutes, long latenessMinutes) {
+            this.task = task;
+            this.feasibility = feasibility;
+            this.effectiveDeadline = effectiveDeadline;
+            this.plannedFinish = plannedFinish;
+            this.scheduledMinutes = scheduledMinutes;
+            this.unscheduledMinutes = unscheduledMinutes;
+            this.latenessMinutes = latenessMinutes;
+        }
+        
+        public Task getTask() {
+            return task;
+        }
+        
+        public Feasibility getFeasibility() {
+            return feasibility;
+        }
+        
+        public LocalDateTime getEffectiveDeadline() {
+            return effectiveDeadline;
+        }
+        
+        public LocalDateTime getPlannedFinish() {
+            return plannedFinish;
+        }
+        
+        public long getScheduledMinutes() {
+            return scheduledMinutes;
+        }
+        
+        public long getUnscheduledMinutes() {
+            return unscheduledMinutes;
+        }
+        
+        // berapa menit setelah due date tugas ini selesai (0 jika tepat waktu)
+        public long getLatenessMinutes() {
+            return latenessMinutes;
+        }
+    }
+    
+    private final List<ScheduledBlock> blocks;
+    private final List<TaskReport> reports;
+    private final Map<Task, TaskReport> reportsByTask;
+    
+    ScheduleResult(List<ScheduledBlock> blocks, List<TaskReport> reports) {
+        this.blocks = Collections.unmodifiableList(blocks);
+        this.reports = Collections.unmodifiableList(reports);
+        this.reportsByTask = new IdentityHashMap<>(reports.size() * 2);
+        for (TaskReport report : reports) {
+            reportsByTask.put(report.getTask(), report);
+        }
+    }
+    
+    // Blok terurut berdasarkan waktu mulai
+    public List<ScheduledBlock> getBlocks() {
+        return blocks;
+    }
+    
+    // Satu laporan per tugas yang belum selesai, urut sesuai dependensi
+    public List<TaskReport> getReports() {
+        return reports;
+    }
+    
+    // Laporan untuk satu tugas, null jika tugas tidak ikut dijadwalkan (mis. sudah selesai)
+    public TaskReport getReport(Task task) {
+        return reportsByTask.get(task);
+    }
+    
+    // Tugas yang akan melewati deadline atau tidak muat sebelum deadline di dalam horizon
+    public List<TaskReport> getInfeasible() {
+        return reports.stream()
+            .filter(ScheduleResult::missesDeadline)
+            .toList();
+    }
+    
+    public boolean isFeasible() {
+        return reports.stream().noneMatch(ScheduleResult::missesDeadline);
+    }
+    
+    private static boolean missesDeadline(TaskReport report) {
+        return report.getFeasibility() != Feasibility.ON_TIME
+            && report.getFeasibility() != Feasibility.AFTER_HORIZON;
+    }
+    
+    public long getTotalLatenessMinutes() {
+        return reports.stream().mapToLong(TaskReport::getLatenessMinutes).sum();
+    }
+}
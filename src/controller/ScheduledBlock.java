@@ -0,0 +1,39 @@
+package controller;
+
+import java.time.LocalDateTime;
+
+import model.Task;
+
+// blok terjadwal untuk tampilan kalender
+public class ScheduledBlock {
+    private Task task;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    
+    public ScheduledBlock(Task task, LocalDateTime startTime, LocalDateTime endTime) {
+        this.task = task;
+        this.startTime = startTime;
+        this.endTime = endTime;
+    }
+    
+    public Task getTask() { 
+        return task; 
+    }
+
+    public LocalDateTime getStartTime() { 
+        return startTime; 
+    }
+
+    public LocalDateTime getEndTime() { 
+        return endTime; 
+    }
+    
+    // durasi blok dalam jam
+    public int getDurationHours() {
+        return (int) java.time.Duration.between(startTime, endTime).toHours(); // konversi ke jam
+    }
+    
+    public long getDurationMinutes() {
+        return java.time.Duration.between(startTime, endTime).toMinutes();
+    }
+}
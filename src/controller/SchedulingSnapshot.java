@@ -0,0 +1,115 @@
+package controller;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+import model.*;
+
+// Data tugas yang dibekukan untuk DeadlineScheduler
+// Diambil sekali dari TaskManager (di thread pemanggil), setelah itu tidak pernah membaca objek Task
+// lagi, jadi beberapa penjadwalan bisa berjalan paralel tanpa saling mengganggu atau terganggu UI.
+// Array tidak boleh diubah setelah dibuat; variasi dibuat lewat salinan (withExtraWork).
+final class SchedulingSnapshot {
+    final List<Task> tasks;            // tugas yang masih punya sisa pekerjaan (plus 'include'), urut topologis
+    final Map<Task, Integer> index;
+    final long[] work;                 // sisa pekerjaan dalam menit
+    final long[] due;                  // due date dalam menit sejak epoch
+    final int[] priority;              // TaskPriority.ordinal(), makin besar makin penting
+    final int[][] prerequisites;
+    final int[][] dependents;
+    final List<LocalDateTime> examTimes; // waktu ujian yang belum selesai (diblokir dari jadwal belajar)
+
+    private SchedulingSnapshot(List<Task> tasks, Map<Task, Integer> index, long[] work, long[] due, int[] priority,
+                               int[][] prerequisites, int[][] dependents, List<LocalDateTime> examTimes) {
+        this.tasks = tasks;
+        this.index = index;
+        this.work = work;
+        this.due = due;
+        this.priority = priority;
+        this.prerequisites = prerequisites;
+        this.dependents = dependents;
+        this.examTimes = examTimes;
+    }
+
+    static SchedulingSnapshot capture(TaskManager taskManager) {
+        return capture(taskManager, Set.of());
+    }
+
+    // 'include': tugas belum selesai yang tetap dimasukkan walau sisa pekerjaannya 0
+    // (mis. tugas yang diberi jam tambahan oleh skenario what-if)
+    static SchedulingSnapshot capture(TaskManager taskManager, Set<Task> include) {
+        List<Task> open = new ArrayList<>();
+        List<LocalDateTime> examTimes = new ArrayList<>();
+        for (Task task : taskManager.getSnapshot().getTasks()) {
+            if (task.getStatus() == TaskStatus.COMPLETED) continue;
+            if (task instanceof Exam) examTimes.add(task.getDueDate());
+            if (task.getEstimatedHours() > task.getActualHours() || include.contains(task)) open.add(task);
+        }
+        List<Task> tasks = List.copyOf(taskManager.getDependencyGraph().topologicalOrder(open));
+        int n = tasks.size();
+
+        Map<Task, Integer> index = new IdentityHashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            index.put(tasks.get(i), i);
+        }
+
+        long[] work = new long[n];
+        long[] due = new long[n];
+        int[] priority = new int[n];
+        int[][] prerequisites = new int[n][];
+        List<List<Integer>> dependentLists = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            dependentLists.add(new ArrayList<>(2));
+        }
+
+        for (int i = 0; i < n; i++) {
+            Task task = tasks.get(i);
+            work[i] = Math.max(0, task.getEstimatedHours() - task.getActualHours()) * 60L;
+            due[i] = FreeTimeline.toEpochMinute(task.getDueDate());
+            priority[i] = task.getPriority().ordinal();
+
+            // prerequisite yang sudah selesai (atau tanpa sisa pekerjaan) tidak menahan tugas ini
+            List<Integer> openPrerequisites = new ArrayList<>(2);
+            for (Task prerequisite : task.getDependencies()) {
+                Integer p = index.get(prerequisite);
+                if (p != null) {
+                    openPrerequisites.add(p);
+                    dependentLists.get(p).add(i);
+                }
+            }
+            prerequisites[i] = toArray(openPrerequisites);
+        }
+
+        int[][] dependents = new int[n][];
+        for (int i = 0; i < n; i++) {
+            dependents[i] = toArray(dependentLists.get(i));
+        }
+        return new SchedulingSnapshot(tasks, Collections.unmodifiableMap(index), work, due, priority,
+            prerequisites, dependents, List.copyOf(examTimes));
+    }
+
+    // Salinan dengan sisa pekerjaan tugas ditambah (atau dikurangi jika negatif) 'minutes' menit
+    // Tugas harus ada di snapshot (lihat 'include' pada capture)
+    SchedulingSnapshot withExtraWork(Task task, long minutes) {
+        Integer i = index.get(task);
+        if (i == null) {
+            throw new IllegalArgumentException("Task '" + task.getTitle() + "' is not in the snapshot");
+        }
+        if (minutes == 0) return this;
+        long[] adjusted = work.clone();
+        adjusted[i] = Math.max(0, adjusted[i] + minutes);
+        return new SchedulingSnapshot(tasks, index, adjusted, due, priority, prerequisites, dependents, examTimes);
+    }
+
+    int size() {
+        return tasks.size();
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+}
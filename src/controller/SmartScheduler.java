@@ -1,7 +1,10 @@
 package controller;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import model.*;
 import model.Task;
@@ -15,85 +18,74 @@ class SmartScheduler {
         this.userProfile = userProfile;
     }
     
+    private static final int BLOCK_MINUTES = 120;
+    private static final int EXAM_DURATION_MINUTES = 120; // waktu ujian dianggap sibuk
+    
     // Menghasilkan jadwal belajar untuk jangka waktu tertentu (dalam hari)
+    // Blok dipotong dari slot bebas di kalender ketersediaan pengguna.
     public List<ScheduledBlock> generateSchedule(int days) {
         List<ScheduledBlock> schedule = new java.util.ArrayList<>();
         List<Task> pendingTasks = taskManager.getTasksSortedByUrgency();
         
         LocalDateTime currentTime = LocalDateTime.now();
         LocalDateTime endTime = currentTime.plusDays(days);
+        FreeTimeline freeTime = FreeTimeline.fromAvailability(userProfile.getAvailability(),
+            currentTime, endTime, examCommitments(taskManager, currentTime, endTime));
         
         for (Task task : pendingTasks) {
+            if (freeTime.isEmpty()) break;
             if (task.getStatus() == TaskStatus.COMPLETED) continue;
             if (!task.canStart()) continue; 
             
-            int hoursNeeded = task.getEstimatedHours() - task.getActualHours();
+            long minutesNeeded = (task.getEstimatedHours() - task.getActualHours()) * 60L;
             
-            // penjadwalan dalam blok 2 jam selama jam optimal (9 pagi - 9 malam)
-            while (hoursNeeded > 0 && currentTime.isBefore(endTime)) {
-                if (isProductiveHour(currentTime)) {
-                    int blockHours = Math.min(2, hoursNeeded);
-                    ScheduledBlock block = new ScheduledBlock(
-                        task,
-                        currentTime,
-                        currentTime.plusHours(blockHours)
-                    );
-                    schedule.add(block);
-                    hoursNeeded -= blockHours;
-                    currentTime = currentTime.plusHours(blockHours);
-                } else {
-                    currentTime = currentTime.plusHours(1);
-                }
+            // penjadwalan dalam blok 2 jam, dipotong di akhir jendela produktif
+            while (minutesNeeded > 0) {
+                ScheduledBlock block = freeTime.take(task, Math.min(BLOCK_MINUTES, minutesNeeded));
+                if (block == null) break;
+                schedule.add(block);
+                minutesNeeded -= block.getDurationMinutes();
             }
         }
         
         return schedule;
     }
     
-    public List<Task> getRecommendedTasks(int count) {
-        List<Task> urgentTasks = taskManager.getTasksSortedByUrgency();
-        
-        // Filter berdasarkan tugas yang bisa dimulai sekarang dan paling mendesak
-        return urgentTasks.stream()
-            .filter(t -> t.getStatus() != TaskStatus.COMPLETED)
-            .filter(Task::canStart)
-            .limit(count)
-            .toList();
+    // Jadwal yang menghormati due date, dependensi dan beban harian, plus laporan kelayakan per tugas
+    public ScheduleResult generateDeadlineSchedule(ScheduleOptions options) {
+        return new DeadlineScheduler(taskManager, userProfile.getAvailability()).schedule(options);
     }
     
-    // Cek apakah jam tersebut adalah jam produktif
-    private boolean isProductiveHour(LocalDateTime time) {
-        int hour = time.getHour();
-        return hour >= 9 && hour <= 21; // 9 AM sampai 9 PM
-    }
-}
-
-// blok terjadwal untuk tampilan kalender
-class ScheduledBlock {
-    private Task task;
-    private LocalDateTime startTime;
-    private LocalDateTime endTime;
-    
-    public ScheduledBlock(Task task, LocalDateTime startTime, LocalDateTime endTime) {
-        this.task = task;
-        this.startTime = startTime;
-        this.endTime = endTime;
+    // Mask slot ujian yang belum selesai di dalam horizon, supaya tidak dipakai blok belajar
+    static Map<LocalDate, long[]> examCommitments(TaskManager taskManager, LocalDateTime from, LocalDateTime to) {
+        List<LocalDateTime> examTimes = new java.util.ArrayList<>();
+        for (Task task : taskManager.getTasksDueBetween(from, to)) {
+            if (task instanceof Exam && task.getStatus() != TaskStatus.COMPLETED) {
+                examTimes.add(task.getDueDate());
+            }
+        }
+        return examCommitments(examTimes, from, to);
     }
     
-    public Task getTask() { 
-        return task; 
-    }
-
-    public LocalDateTime getStartTime() { 
-        return startTime; 
-    }
-
-    public LocalDateTime getEndTime() { 
-        return endTime; 
+    static Map<LocalDate, long[]> examCommitments(List<LocalDateTime> examTimes, LocalDateTime from, LocalDateTime to) {
+        Map<LocalDate, long[]> busy = new HashMap<>();
+        for (LocalDateTime start : examTimes) {
+            if (start.isBefore(from) || !start.isBefore(to)) continue;
+            
+            LocalDateTime end = start.plusMinutes(EXAM_DURATION_MINUTES);
+            int fromSlot = AvailabilityCalendar.slotOf(start.toLocalTime());
+            int toSlot = end.toLocalDate().isAfter(start.toLocalDate()) ? AvailabilityCalendar.SLOTS_PER_DAY
+                : fromSlot + EXAM_DURATION_MINUTES / AvailabilityCalendar.SLOT_MINUTES;
+            long[] mask = AvailabilityCalendar.rangeMask(fromSlot, toSlot);
+            long[] day = busy.computeIfAbsent(start.toLocalDate(), d -> new long[2]);
+            day[0] |= mask[0];
+            day[1] |= mask[1];
+        }
+        return busy;
     }
     
-    // durasi blok dalam jam
-    public int getDurationHours() {
-        return (int) java.time.Duration.between(startTime, endTime).toHours(); // konversi ke jam
+    public List<Task> getRecommendedTasks(int count) {
+        // Ambil dari ranking urgensi (sudah terurut), berhenti setelah "count" tugas yang bisa dimulai
+        return taskManager.getUrgencyRanking().getTopTasks(count, Task::canStart);
     }
-}
\ No newline at end of file
+}
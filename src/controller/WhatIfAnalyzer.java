@@ -0,0 +1,219 @@
+package controller;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import model.*;
+
+// Perbandingan "bagaimana jika": beberapa skenario jadwal dihitung paralel di ForkJoinPool
+// Snapshot tugas dan salinan kalender ketersediaan diambil sekali di thread pemanggil, lalu dipakai
+// bersama (hanya dibaca) oleh semua skenario. Perubahan hipotetis (mis. +5 jam untuk satu ujian)
+// diterapkan ke salinan snapshot, jadi skenario tidak saling mengganggu dan tidak menyentuh UI.
+public class WhatIfAnalyzer {
+    private final TaskManager taskManager;
+    private final UserProfile userProfile;
+    private final ForkJoinPool pool;
+
+    public WhatIfAnalyzer(TaskManager taskManager, UserProfile userProfile) {
+        this(taskManager, userProfile, ForkJoinPool.commonPool());
+    }
+
+    public WhatIfAnalyzer(TaskManager taskManager, UserProfile userProfile, ForkJoinPool pool) {
+        this.taskManager = taskManager;
+        this.userProfile = userProfile;
+        this.pool = pool;
+    }
+
+    // Satu skenario: opsi penjadwalan (ukuran blok, beban harian, hari yang dilewati, ...)
+    // plus tambahan jam hipotetis per tugas
+    public static class Scenario {
+        private final String name;
+        private final ScheduleOptions options;
+        private final Map<Task, Integer> extraHours = new IdentityHashMap<>();
+
+        public Scenario(String name, ScheduleOptions options) {
+            this.name = name;
+            this.options = options.copy();
+        }
+
+        // Tambah (atau kurangi jika negatif) estimasi sisa pekerjaan satu tugas yang belum selesai
+        // (tugas yang sudah selesai atau tidak ada di TaskManager ditolak saat compare)
+        public Scenario addHours(Task task, int hours) {
+            extraHours.merge(task, hours, Integer::sum);
+            return this;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public ScheduleOptions getOptions() {
+            return options.copy();
+        }
+
+        public Map<Task, Integer> getExtraHours() {
+            return Collections.unmodifiableMap(extraHours);
+        }
+
+        private Scenario copy() {
+            Scenario copy = new Scenario(name, options);
+            copy.extraHours.putAll(extraHours);
+            return copy;
+        }
+    }
+
+    // Hasil satu skenario beserta ringkasan metriknya
+    public static class Outcome {
+        private final String scenarioName;
+        private final ScheduleResult result;
+        private final int missedDeadlines;   // tugas LATE, BLOCKED atau UNSCHEDULED (deadline di dalam horizon)
+        private final long idleMinutes;      // waktu luang (dibatasi beban harian) yang tidak terpakai
+        private final double loadVariance;   // variansi jam belajar per hari di dalam horizon
+
+        Outcome(String scenarioName, ScheduleResult result, int missedDeadlines, long idleMinutes, double loadVariance) {
+            this.scenarioName = scenarioName;
+            this.result = result;
+            this.missedDeadlines = missedDeadlines;
+            this.idleMinutes = idleMinutes;
+            this.loadVariance = loadVariance;
+        }
+
+        public String getScenarioName() {
+            return scenarioName;
+        }
+
+        public ScheduleResult getResult() {
+            return result;
+        }
+
+        public List<ScheduledBlock> getBlocks() {
+            return result.getBlocks();
+        }
+
+        public int getMissedDeadlines() {
+            return missedDeadlines;
+        }
+
+        public double getIdleHours() {
+            return idleMinutes / 60.0;
+        }
+
+        public double getLoadVariance() {
+            return loadVariance;
+        }
+    }
+
+    // Hitung semua skenario secara paralel; hasil urut sesuai daftar skenario
+    // IllegalArgumentException jika skenario menambah jam ke tugas yang sudah selesai atau tidak dikelola
+    public List<Outcome> compare(List<Scenario> scenarios) {
+        if (scenarios.isEmpty()) return List.of();
+
+        List<Scenario> frozen = new ArrayList<>(scenarios.size());
+        Set<Task> adjusted = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Scenario scenario : scenarios) {
+            Scenario copy = scenario.copy();
+            frozen.add(copy);
+            adjusted.addAll(copy.extraHours.keySet());
+        }
+
+        // tugas yang diberi jam tambahan ikut di-snapshot walau sisa pekerjaannya 0
+        SchedulingSnapshot snapshot = SchedulingSnapshot.capture(taskManager, adjusted);
+        for (Scenario scenario : frozen) {
+            for (Task task : scenario.extraHours.keySet()) {
+                if (!snapshot.index.containsKey(task)) {
+                    throw new IllegalArgumentException("Scenario '" + scenario.name + "' adds hours to '"
+                        + task.getTitle() + "', which is completed or not in the task list");
+                }
+            }
+        }
+        AvailabilityCalendar calendar = userProfile.getAvailability().copy();
+        return pool.invoke(new ScenarioTask(snapshot, calendar, frozen, 0, frozen.size()));
+    }
+
+    // Bagi daftar skenario menjadi dua sampai tersisa satu skenario per task
+    private static class ScenarioTask extends RecursiveTask<List<Outcome>> {
+        private static final long serialVersionUID = 1L;
+
+        private final SchedulingSnapshot snapshot;
+        private final AvailabilityCalendar calendar;
+        private final List<Scenario> scenarios;
+        private final int from;
+        private final int to;
+
+        ScenarioTask(SchedulingSnapshot snapshot, AvailabilityCalendar calendar, List<Scenario> scenarios, int from, int to) {
+            this.snapshot = snapshot;
+            this.calendar = calendar;
+            this.scenarios = scenarios;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<Outcome> compute() {
+            if (to - from == 1) {
+                return List.of(evaluate(snapshot, calendar, scenarios.get(from)));
+            }
+            int mid = (from + to) >>> 1;
+            ScenarioTask left = new ScenarioTask(snapshot, calendar, scenarios, from, mid);
+            ScenarioTask right = new ScenarioTask(snapshot, calendar, scenarios, mid, to);
+            left.fork();
+            List<Outcome> outcomes = new ArrayList<>(right.compute());
+            outcomes.addAll(0, left.join());
+            return outcomes;
+        }
+    }
+
+    private static Outcome evaluate(SchedulingSnapshot snapshot, AvailabilityCalendar calendar, Scenario scenario) {
+        SchedulingSnapshot adjusted = snapshot;
+        for (Map.Entry<Task, Integer> entry : scenario.extraHours.entrySet()) {
+            adjusted = adjusted.withExtraWork(entry.getKey(), entry.getValue() * 60L);
+        }
+        ScheduleOptions options = scenario.options;
+        ScheduleResult result = new DeadlineScheduler(calendar).schedule(adjusted, options);
+
+        // beban dan kapasitas per tanggal di dalam horizon
+        LocalDateTime start = options.getStart();
+        LocalDateTime end = start.plusDays(options.getHorizonDays());
+        long firstDay = start.toLocalDate().toEpochDay();
+        int days = (int) Math.max(1, end.minusMinutes(1).toLocalDate().toEpochDay() - firstDay + 1);
+        long[] free = FreeTimeline.fromAvailability(calendar, start, end, DeadlineScheduler.blockedSlots(adjusted, options))
+            .minutesPerDay(firstDay, days);
+        long[] load = new long[days];
+        for (ScheduledBlock block : result.getBlocks()) {
+            LocalDate date = block.getStartTime().toLocalDate();
+            long day = date.toEpochDay() - firstDay;
+            if (day >= 0 && day < days) load[(int) day] += block.getDurationMinutes();
+        }
+
+        long maxDaily = options.getMaxDailyMinutes() > 0 ? options.getMaxDailyMinutes() : Long.MAX_VALUE;
+        long idle = 0;
+        double mean = 0;
+        for (int d = 0; d < days; d++) {
+            idle += Math.max(0, Math.min(free[d], maxDaily) - load[d]);
+            mean += load[d] / 60.0;
+        }
+        mean /= days;
+        double variance = 0;
+        for (int d = 0; d < days; d++) {
+            double diff = load[d] / 60.0 - mean;
+            variance += diff * diff;
+        }
+        variance /= days;
+
+        // tugas yang baru jatuh tempo setelah horizon (AFTER_HORIZON) tidak dihitung, supaya skenario
+        // dengan horizon atau hari libur berbeda tetap bisa dibandingkan
+        int missed = 0;
+        for (ScheduleResult.TaskReport report : result.getReports()) {
+            ScheduleResult.Feasibility feasibility = report.getFeasibility();
+            if (feasibility == ScheduleResult.Feasibility.LATE || feasibility == ScheduleResult.Feasibility.BLOCKED
+                    || feasibility == ScheduleResult.Feasibility.UNSCHEDULED) {
+                missed++;
+            }
+        }
+
+        return new Outcome(scenario.name, result, missed, idle, variance);
+    }
+}
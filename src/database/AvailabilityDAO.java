@@ -0,0 +1,120 @@
+package database;
+
+import model.*;
+import java.sql.*;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * AvailabilityDAO - Data Access Object untuk ketersediaan waktu belajar.
+ * Setiap baris menyimpan satu hari sebagai dua bitset slot 15 menit (slots_lo, slots_hi).
+ */
+public class AvailabilityDAO {
+    // Nilai kolom kind
+    private static final String WEEKLY = "WEEKLY"; // day = DayOfWeek.getValue()
+    private static final String DATE = "DATE";     // day = epoch day, mengganti template
+    private static final String BUSY = "BUSY";     // day = epoch day, dikurangi dari ketersediaan
+    
+    private DatabaseManager dbManager;
+    
+    public AvailabilityDAO(DatabaseManager dbManager) {
+        this.dbManager = dbManager;
+    }
+    
+    /**
+     * Simpan seluruh kalender ketersediaan user (mengganti data lama dalam satu transaksi)
+     */
+    public void saveAvailability(int userId, AvailabilityCalendar calendar) {
+        Connection conn = null;
+        try {
+            conn = dbManager.borrowWriter();
+            boolean ownsTransaction = conn.getAutoCommit();
+            if (ownsTransaction) conn.setAutoCommit(false);
+            
+            try {
+                PreparedStatement delete = dbManager.prepare(conn, "DELETE FROM availability WHERE user_id = ?");
+                delete.setInt(1, userId);
+                delete.executeUpdate();
+                
+                PreparedStatement stmt = dbManager.prepare(conn, """
+                    INSERT INTO availability (user_id, kind, day, slots_lo, slots_hi)
+                    VALUES (?, ?, ?, ?, ?)
+                """);
+                
+                for (DayOfWeek day : DayOfWeek.values()) {
+                    addRow(stmt, userId, WEEKLY, day.getValue(), calendar.getWeeklySlots(day));
+                }
+                for (Map.Entry<LocalDate, long[]> entry : calendar.getDateExceptions().entrySet()) {
+                    addRow(stmt, userId, DATE, entry.getKey().toEpochDay(), entry.getValue());
+                }
+                for (Map.Entry<LocalDate, long[]> entry : calendar.getBusySlots().entrySet()) {
+                    addRow(stmt, userId, BUSY, entry.getKey().toEpochDay(), entry.getValue());
+                }
+                stmt.executeBatch();
+                
+                if (ownsTransaction) conn.commit();
+            } catch (SQLException e) {
+                if (ownsTransaction) conn.rollback();
+                throw e;
+            } finally {
+                if (ownsTransaction) conn.setAutoCommit(true);
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to save availability!");
+            e.printStackTrace();
+        } finally {
+            dbManager.release(conn);
+        }
+    }
+    
+    private void addRow(PreparedStatement stmt, int userId, String kind, long day, long[] slots) throws SQLException {
+        stmt.setInt(1, userId);
+        stmt.setString(2, kind);
+        stmt.setLong(3, day);
+        stmt.setLong(4, slots[0]);
+        stmt.setLong(5, slots[1]);
+        stmt.addBatch();
+    }
+    
+    /**
+     * Load kalender ketersediaan user.
+     * Jika belum pernah disimpan, template default (09:00 - 22:00 setiap hari) dipakai.
+     */
+    public AvailabilityCalendar loadAvailability(int userId) {
+        AvailabilityCalendar calendar = new AvailabilityCalendar();
+        Connection conn = null;
+        try {
+            conn = dbManager.borrowReader();
+            
+            String sql = "SELECT kind, day, slots_lo, slots_hi FROM availability WHERE user_id = ?";
+            PreparedStatement stmt = dbManager.prepare(conn, sql);
+            stmt.setInt(1, userId);
+            ResultSet rs = stmt.executeQuery();
+            
+            while (rs.next()) {
+                String kind = rs.getString("kind");
+                long day = rs.getLong("day");
+                long lo = rs.getLong("slots_lo");
+                long hi = rs.getLong("slots_hi");
+                
+                switch (kind) {
+                    case WEEKLY -> calendar.setWeeklySlots(DayOfWeek.of((int) day), lo, hi);
+                    case DATE -> calendar.setDateSlots(LocalDate.ofEpochDay(day), lo, hi);
+                    case BUSY -> calendar.setBusySlots(LocalDate.ofEpochDay(day), lo, hi);
+                    default -> System.err.println("⚠️ Unknown availability kind: " + kind);
+                }
+            }
+            
+            rs.close();
+            
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to load availability!");
+            e.printStackTrace();
+        } finally {
+            dbManager.release(conn);
+        }
+        return calendar;
+    }
+}
@@ -0,0 +1,331 @@
+package database;
+
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ConnectionPool - Pool koneksi SQLite kecil untuk DatabaseManager
+ * Satu koneksi writer (dikunci per thread) dan beberapa koneksi reader (read-only).
+ * Peminjaman bersifat reentrant per thread, jadi DAO yang memanggil DAO lain
+ * (misalnya saveUser -> updateUser) tetap memakai koneksi yang sama.
+ */
+class ConnectionPool {
+    private static final long BORROW_TIMEOUT_MS = 10_000;
+    private static final int STATEMENT_CACHE_SIZE = 64;
+
+    private final String url;
+    private final int maxReaders;
+    private final StorageProfile profile;
+
+    private volatile Connection writer;
+    private final ReentrantLock writerLock = new ReentrantLock(true);
+
+    private final BlockingQueue<Connection> idleReaders;
+    private final List<Connection> allReaders = new CopyOnWriteArrayList<>();
+    private final AtomicInteger createdReaders = new AtomicInteger();
+
+    // lease per thread: writer dan reader dicatat terpisah
+    private final ThreadLocal<Lease> writerLease = new ThreadLocal<>();
+    private final ThreadLocal<Lease> readerLease = new ThreadLocal<>();
+
+    // Pool metrics
+    private final AtomicInteger activeCount = new AtomicInteger();
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    // Prepared statement cache per koneksi
+    private final Map<Connection, StatementCache> statementCaches = new ConcurrentHashMap<>();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+    private final AtomicLong cacheEvictions = new AtomicLong();
+
+    private volatile boolean closed = false;
+
+    private static class Lease {
+        final Connection conn;
+        int depth = 1;
+
+        Lease(Connection conn) {
+            this.conn = conn;
+        }
+    }
+
+    ConnectionPool(String url, int maxReaders, StorageProfile profile) throws SQLException {
+        this.url = url;
+        this.maxReaders = maxReaders;
+        this.profile = profile;
+        this.idleReaders = new ArrayBlockingQueue<>(maxReaders);
+        this.writer = openConnection(false);
+    }
+
+    /**
+     * Buka koneksi baru dan jalankan warm-up PRAGMA
+     */
+    private Connection openConnection(boolean readOnly) throws SQLException {
+        Connection conn = DriverManager.getConnection(url);
+        conn.setAutoCommit(true);
+
+        // journal_mode, synchronous, cache, mmap, busy_timeout sesuai profil
+        profile.apply(conn, !readOnly);
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA foreign_keys = ON");
+            if (readOnly) {
+                stmt.execute("PRAGMA query_only = ON");
+            }
+            // Muat schema ke cache koneksi sebelum dipakai DAO
+            stmt.executeQuery("SELECT COUNT(*) FROM sqlite_master").close();
+        }
+
+        return conn;
+    }
+
+    /**
+     * Pinjam koneksi writer. Hanya satu thread yang bisa memegang writer sekaligus.
+     */
+    Connection borrowWriter() throws SQLException {
+        Lease lease = writerLease.get();
+        if (lease != null) {
+            lease.depth++;
+            return lease.conn;
+        }
+        ensureOpen();
+
+        long start = System.nanoTime();
+        try {
+            if (!writerLock.tryLock(BORROW_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out waiting for the writer connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the writer connection", e);
+        }
+        recordWait(System.nanoTime() - start);
+
+        try {
+            // Reconnect jika koneksi writer tertutup
+            if (writer == null || writer.isClosed()) {
+                discardStatementCache(writer);
+                writer = openConnection(false);
+            }
+        } catch (SQLException e) {
+            writerLock.unlock();
+            throw e;
+        }
+
+        writerLease.set(new Lease(writer));
+        activeCount.incrementAndGet();
+        return writer;
+    }
+
+    /**
+     * Pinjam koneksi reader. Thread yang sedang memegang writer akan mendapat
+     * writer-nya sendiri agar bisa membaca perubahan yang belum di-commit.
+     */
+    Connection borrowReader() throws SQLException {
+        Lease lease = writerLease.get();
+        if (lease == null) {
+            lease = readerLease.get();
+        }
+        if (lease != null) {
+            lease.depth++;
+            return lease.conn;
+        }
+        ensureOpen();
+
+        long start = System.nanoTime();
+        Connection conn = idleReaders.poll();
+        if (conn == null && createdReaders.getAndIncrement() < maxReaders) {
+            try {
+                conn = openConnection(true);
+                allReaders.add(conn);
+            } catch (SQLException e) {
+                createdReaders.decrementAndGet();
+                throw e;
+            }
+        } else if (conn == null) {
+            createdReaders.decrementAndGet();
+            try {
+                conn = idleReaders.poll(BORROW_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a reader connection", e);
+            }
+            if (conn == null) {
+                throw new SQLException("Timed out waiting for a reader connection");
+            }
+        }
+        recordWait(System.nanoTime() - start);
+
+        // Ganti koneksi reader yang sudah tertutup
+        if (conn.isClosed()) {
+            allReaders.remove(conn);
+            discardStatementCache(conn);
+            try {
+                conn = openConnection(true);
+            } catch (SQLException e) {
+                createdReaders.decrementAndGet();
+                throw e;
+            }
+            allReaders.add(conn);
+        }
+
+        readerLease.set(new Lease(conn));
+        activeCount.incrementAndGet();
+        return conn;
+    }
+
+    /**
+     * Kembalikan koneksi yang dipinjam ke pool
+     */
+    void release(Connection conn) {
+        if (conn == null) return;
+
+        Lease lease = writerLease.get();
+        if (lease != null && lease.conn == conn) {
+            if (--lease.depth == 0) {
+                writerLease.remove();
+                activeCount.decrementAndGet();
+                resetAfterUse(conn);
+                writerLock.unlock();
+            }
+            return;
+        }
+
+        lease = readerLease.get();
+        if (lease != null && lease.conn == conn) {
+            if (--lease.depth == 0) {
+                readerLease.remove();
+                activeCount.decrementAndGet();
+                if (closed) {
+                    closeQuietly(conn);
+                } else {
+                    idleReaders.offer(conn);
+                }
+            }
+            return;
+        }
+
+        System.err.println("⚠️ Released a connection that is not leased by this thread");
+    }
+
+    /**
+     * Prepare statement lewat cache milik koneksi (koneksi harus sedang dipinjam thread ini)
+     */
+    PreparedStatement prepare(Connection conn, String sql, int autoGeneratedKeys) throws SQLException {
+        StatementCache cache = statementCaches.computeIfAbsent(conn,
+            c -> new StatementCache(c, STATEMENT_CACHE_SIZE, cacheHits, cacheMisses, cacheEvictions));
+        return cache.prepare(sql, autoGeneratedKeys);
+    }
+
+    private void discardStatementCache(Connection conn) {
+        if (conn == null) return;
+        StatementCache cache = statementCaches.remove(conn);
+        if (cache != null) {
+            cache.close();
+        }
+    }
+
+    /**
+     * Pastikan transaksi yang tertinggal tidak bocor ke peminjam berikutnya
+     */
+    private void resetAfterUse(Connection conn) {
+        try {
+            if (!conn.isClosed() && !conn.getAutoCommit()) {
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to reset writer connection!");
+            e.printStackTrace();
+        }
+    }
+
+    private void ensureOpen() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+    }
+
+    private void recordWait(long nanos) {
+        borrowCount.incrementAndGet();
+        totalWaitNanos.addAndGet(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Tutup semua koneksi di pool
+     */
+    void close() {
+        closed = true;
+        for (StatementCache cache : statementCaches.values()) {
+            cache.close();
+        }
+        statementCaches.clear();
+        for (Connection conn : allReaders) {
+            closeQuietly(conn);
+        }
+        allReaders.clear();
+        idleReaders.clear();
+        closeQuietly(writer);
+    }
+
+    private void closeQuietly(Connection conn) {
+        try {
+            if (conn != null && !conn.isClosed()) {
+                conn.close();
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Metrics getters
+    int getActiveCount() {
+        return activeCount.get();
+    }
+
+    int getOpenReaders() {
+        return allReaders.size();
+    }
+
+    int getMaxReaders() {
+        return maxReaders;
+    }
+
+    long getBorrowCount() {
+        return borrowCount.get();
+    }
+
+    long getTotalWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get());
+    }
+
+    long getMaxWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get());
+    }
+
+    long getStatementCacheHits() {
+        return cacheHits.get();
+    }
+
+    long getStatementCacheMisses() {
+        return cacheMisses.get();
+    }
+
+    long getStatementCacheEvictions() {
+        return cacheEvictions.get();
+    }
+
+    StorageProfile getProfile() {
+        return profile;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+}
@@ -2,6 +2,7 @@ package database;
 
 import java.sql.*;
 import java.io.File;
+import java.util.*;
 
 /**
  * DatabaseManager - Singleton class untuk mengelola koneksi database SQLite
@@ -9,9 +10,10 @@ import java.io.File;
  */
 public class DatabaseManager {
     private static DatabaseManager instance;
-    private Connection connection;
+    private ConnectionPool pool;
     private static final String DB_NAME = "studyplanner.db";
     private static final String DB_DIR = ".smartstudyplanner";
+    private static final int READER_POOL_SIZE = 4;
     
     // Private constructor untuk singleton pattern
     private DatabaseManager() {
@@ -30,11 +32,11 @@ public class DatabaseManager {
             String dbPath = new File(dbDir, DB_NAME).getAbsolutePath();
             String url = "jdbc:sqlite:" + dbPath;
             
-            // Create connection
-            connection = DriverManager.getConnection(url);
-            connection.setAutoCommit(true); // Auto-commit untuk immediate saves
+            // Create connection pool (1 writer + N readers)
+            StorageProfile profile = StorageProfile.fromSystemProperty();
+            pool = new ConnectionPool(url, READER_POOL_SIZE, profile);
             
-            System.out.println("✅ Database connected: " + dbPath);
+            System.out.println("✅ Database connected: " + dbPath + " (storage profile: " + profile + ")");
             
             // Initialize schema
             initializeSchema();
@@ -60,32 +62,127 @@ public class DatabaseManager {
     }
     
     /**
-     * Get database connection
+     * Borrow the writer connection for INSERT/UPDATE/DELETE
+     * Must be returned with release() in a finally block
      */
-    public Connection getConnection() {
+    public Connection borrowWriter() throws SQLException {
+        return pool.borrowWriter();
+    }
+    
+    /**
+     * Borrow a read-only connection for SELECT queries
+     * Must be returned with release() in a finally block
+     */
+    public Connection borrowReader() throws SQLException {
+        return pool.borrowReader();
+    }
+    
+    /**
+     * Return a borrowed connection to the pool
+     */
+    public void release(Connection conn) {
+        pool.release(conn);
+    }
+    
+    /**
+     * Prepare a statement through the per-connection statement cache
+     * Cached statements must NOT be closed by the caller (close the ResultSet only)
+     */
+    public PreparedStatement prepare(Connection conn, String sql) throws SQLException {
+        return pool.prepare(conn, sql, Statement.NO_GENERATED_KEYS);
+    }
+    
+    /**
+     * Prepare a cached statement that returns generated keys
+     */
+    public PreparedStatement prepare(Connection conn, String sql, int autoGeneratedKeys) throws SQLException {
+        return pool.prepare(conn, sql, autoGeneratedKeys);
+    }
+    
+    /**
+     * Rowid baris terakhir yang di-INSERT lewat koneksi ini
+     * Dipakai sebagai pengganti getGeneratedKeys(): sqlite-jdbc mengembalikan 0 jika
+     * teks SQL diawali whitespace (semua text block INSERT di DAO).
+     */
+    public int lastInsertId(Connection conn) throws SQLException {
+        ResultSet rs = prepare(conn, "SELECT last_insert_rowid()").executeQuery();
         try {
-            // Check if connection is closed, reconnect if needed
-            if (connection == null || connection.isClosed()) {
-                String userHome = System.getProperty("user.home");
-                File dbDir = new File(userHome, DB_DIR);
-                String dbPath = new File(dbDir, DB_NAME).getAbsolutePath();
-                String url = "jdbc:sqlite:" + dbPath;
-                connection = DriverManager.getConnection(url);
-                connection.setAutoCommit(true);
+            return rs.getInt(1);
+        } finally {
+            rs.close();
+        }
+    }
+    
+    /**
+     * Get prepared statement cache hit/miss statistics
+     */
+    public Map<String, Long> getStatementCacheStatistics() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        long hits = pool.getStatementCacheHits();
+        long misses = pool.getStatementCacheMisses();
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("evictions", pool.getStatementCacheEvictions());
+        stats.put("hit_rate_percent", hits + misses == 0 ? 0 : hits * 100 / (hits + misses));
+        return stats;
+    }
+    
+    /**
+     * Get connection pool metrics
+     */
+    public Map<String, Long> getPoolStatistics() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("active", (long) pool.getActiveCount());
+        stats.put("open_readers", (long) pool.getOpenReaders());
+        stats.put("max_readers", (long) pool.getMaxReaders());
+        stats.put("borrows", pool.getBorrowCount());
+        stats.put("total_wait_ms", pool.getTotalWaitMillis());
+        stats.put("max_wait_ms", pool.getMaxWaitMillis());
+        return stats;
+    }
+    
+    /**
+     * Get the storage profile selected at startup
+     */
+    public StorageProfile getStorageProfile() {
+        return pool.getProfile();
+    }
+    
+    /**
+     * Report storage settings as seen by SQLite (read back from the writer connection)
+     */
+    public Map<String, String> getStorageInfo() {
+        Map<String, String> info = new LinkedHashMap<>();
+        info.put("profile", pool.getProfile().toString());
+        
+        Connection conn = null;
+        try {
+            conn = pool.borrowWriter();
+            Statement stmt = conn.createStatement();
+            for (String pragma : List.of("journal_mode", "synchronous", "cache_size", "mmap_size", "temp_store", "busy_timeout")) {
+                ResultSet rs = stmt.executeQuery("PRAGMA " + pragma);
+                info.put(pragma, rs.next() ? rs.getString(1) : "?");
+                rs.close();
             }
+            stmt.close();
         } catch (SQLException e) {
-            System.err.println("❌ Failed to get database connection!");
+            System.err.println("❌ Failed to read storage settings!");
             e.printStackTrace();
+        } finally {
+            pool.release(conn);
         }
-        return connection;
+        
+        return info;
     }
     
     /**
      * Initialize database schema - create all tables
      */
     private void initializeSchema() {
+        Connection conn = null;
         try {
-            Statement stmt = connection.createStatement();
+            conn = pool.borrowWriter();
+            Statement stmt = conn.createStatement();
             
             // Users table
             stmt.execute("""
@@ -119,6 +216,30 @@ public class DatabaseManager {
                 )
             """);
             
+            // Task statistics summary per user, maintained by triggers on tasks
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS task_stats (
+                    user_id INTEGER PRIMARY KEY,
+                    total INTEGER NOT NULL DEFAULT 0,
+                    todo INTEGER NOT NULL DEFAULT 0,
+                    in_progress INTEGER NOT NULL DEFAULT 0,
+                    completed INTEGER NOT NULL DEFAULT 0,
+                    overdue INTEGER NOT NULL DEFAULT 0,
+                    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+                )
+            """);
+            
+            // Task dependencies: task_id baru bisa dimulai setelah depends_on_id selesai
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS task_dependencies (
+                    task_id INTEGER NOT NULL,
+                    depends_on_id INTEGER NOT NULL,
+                    PRIMARY KEY (task_id, depends_on_id),
+                    FOREIGN KEY (task_id) REFERENCES tasks(id) ON DELETE CASCADE,
+                    FOREIGN KEY (depends_on_id) REFERENCES tasks(id) ON DELETE CASCADE
+                ) WITHOUT ROWID
+            """);
+            
             // Achievements table
             stmt.execute("""
                 CREATE TABLE IF NOT EXISTS achievements (
@@ -145,6 +266,19 @@ public class DatabaseManager {
                 )
             """);
             
+            // Availability table: bitset slot 15 menit per hari (template mingguan, pengecualian, sibuk)
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS availability (
+                    user_id INTEGER NOT NULL,
+                    kind TEXT NOT NULL,
+                    day INTEGER NOT NULL,
+                    slots_lo INTEGER NOT NULL,
+                    slots_hi INTEGER NOT NULL,
+                    PRIMARY KEY (user_id, kind, day),
+                    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+                ) WITHOUT ROWID
+            """);
+            
             // Pomodoro sessions table
             stmt.execute("""
                 CREATE TABLE IF NOT EXISTS pomodoro_sessions (
@@ -194,10 +328,15 @@ public class DatabaseManager {
             // Create indices for better performance
             stmt.execute("CREATE INDEX IF NOT EXISTS idx_tasks_user_id ON tasks(user_id)");
             stmt.execute("CREATE INDEX IF NOT EXISTS idx_tasks_status ON tasks(status)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_task_dependencies_depends_on ON task_dependencies(depends_on_id)");
             stmt.execute("CREATE INDEX IF NOT EXISTS idx_achievements_user_id ON achievements(user_id)");
             stmt.execute("CREATE INDEX IF NOT EXISTS idx_productivity_user_date ON productivity_history(user_id, date)");
             stmt.execute("CREATE INDEX IF NOT EXISTS idx_decks_user_id ON decks(user_id)");
             stmt.execute("CREATE INDEX IF NOT EXISTS idx_flashcards_deck_id ON flashcards(deck_id)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_flashcards_deck_created ON flashcards(deck_id, created_date)");
+            
+            createTaskStatsTriggers(stmt);
+            createFullTextIndexes(stmt);
             
             stmt.close();
             System.out.println("✅ Database schema initialized successfully");
@@ -205,15 +344,184 @@ public class DatabaseManager {
         } catch (SQLException e) {
             System.err.println("❌ Failed to initialize database schema!");
             e.printStackTrace();
+        } finally {
+            pool.release(conn);
         }
     }
     
+    /**
+     * Create triggers that keep task_stats in sync with tasks, then backfill missing users
+     */
+    private void createTaskStatsTriggers(Statement stmt) throws SQLException {
+        stmt.execute("""
+            CREATE TRIGGER IF NOT EXISTS trg_task_stats_insert AFTER INSERT ON tasks
+            BEGIN
+                INSERT OR IGNORE INTO task_stats (user_id) VALUES (NEW.user_id);
+                UPDATE task_stats
+                SET total = total + 1,
+                    todo = todo + (NEW.status = 'TODO'),
+                    in_progress = in_progress + (NEW.status = 'IN_PROGRESS'),
+                    completed = completed + (NEW.status = 'COMPLETED'),
+                    overdue = overdue + (NEW.status = 'OVERDUE')
+                WHERE user_id = NEW.user_id;
+            END
+        """);
+        
+        stmt.execute("""
+            CREATE TRIGGER IF NOT EXISTS trg_task_stats_delete AFTER DELETE ON tasks
+            BEGIN
+                UPDATE task_stats
+                SET total = total - 1,
+                    todo = todo - (OLD.status = 'TODO'),
+                    in_progress = in_progress - (OLD.status = 'IN_PROGRESS'),
+                    completed = completed - (OLD.status = 'COMPLETED'),
+                    overdue = overdue - (OLD.status = 'OVERDUE')
+                WHERE user_id = OLD.user_id;
+            END
+        """);
+        
+        stmt.execute("""
+            CREATE TRIGGER IF NOT EXISTS trg_task_stats_update AFTER UPDATE OF status, user_id ON tasks
+            WHEN OLD.status IS NOT NEW.status OR OLD.user_id IS NOT NEW.user_id
+            BEGIN
+                UPDATE task_stats
+                SET total = total - 1,
+                    todo = todo - (OLD.status = 'TODO'),
+                    in_progress = in_progress - (OLD.status = 'IN_PROGRESS'),
+                    completed = completed - (OLD.status = 'COMPLETED'),
+                    overdue = overdue - (OLD.status = 'OVERDUE')
+                WHERE user_id = OLD.user_id;
+                INSERT OR IGNORE INTO task_stats (user_id) VALUES (NEW.user_id);
+                UPDATE task_stats
+                SET total = total + 1,
+                    todo = todo + (NEW.status = 'TODO'),
+                    in_progress = in_progress + (NEW.status = 'IN_PROGRESS'),
+                    completed = completed + (NEW.status = 'COMPLETED'),
+                    overdue = overdue + (NEW.status = 'OVERDUE')
+                WHERE user_id = NEW.user_id;
+            END
+        """);
+        
+        // Backfill users that have tasks but no summary row yet (e.g. databases created
+        // before task_stats existed). Users that already have a row are kept current by the triggers.
+        stmt.execute("""
+            INSERT OR IGNORE INTO task_stats (user_id, total, todo, in_progress, completed, overdue)
+            SELECT user_id, COUNT(*),
+                   SUM(status = 'TODO'), SUM(status = 'IN_PROGRESS'),
+                   SUM(status = 'COMPLETED'), SUM(status = 'OVERDUE')
+            FROM tasks
+            GROUP BY user_id
+        """);
+    }
+    
+    /**
+     * Create FTS5 indexes for tasks and flashcards, kept in sync by triggers
+     * External-content tables: text is stored once in tasks/flashcards, FTS only keeps the index
+     */
+    private void createFullTextIndexes(Statement stmt) throws SQLException {
+        boolean tasksIndexExists = tableExists(stmt, "tasks_fts");
+        boolean cardsIndexExists = tableExists(stmt, "flashcards_fts");
+        
+        stmt.execute("""
+            CREATE VIRTUAL TABLE IF NOT EXISTS tasks_fts USING fts5(
+                title, description, subject,
+                content = 'tasks', content_rowid = 'id',
+                tokenize = 'unicode61 remove_diacritics 2'
+            )
+        """);
+        
+        stmt.execute("""
+            CREATE TRIGGER IF NOT EXISTS trg_tasks_fts_insert AFTER INSERT ON tasks
+            BEGIN
+                INSERT INTO tasks_fts (rowid, title, description, subject)
+                VALUES (NEW.id, NEW.title, NEW.description, NEW.subject);
+            END
+        """);
+        
+        stmt.execute("""
+            CREATE TRIGGER IF NOT EXISTS trg_tasks_fts_delete AFTER DELETE ON tasks
+            BEGIN
+                INSERT INTO tasks_fts (tasks_fts, rowid, title, description, subject)
+                VALUES ('delete', OLD.id, OLD.title, OLD.description, OLD.subject);
+            END
+        """);
+        
+        // Update triggers are recreated so existing databases get the WHEN clause too.
+        // updateTask always writes title/description; without WHEN every status, priority
+        // or hours edit would delete and re-insert the FTS row.
+        stmt.execute("DROP TRIGGER IF EXISTS trg_tasks_fts_update");
+        stmt.execute("""
+            CREATE TRIGGER trg_tasks_fts_update AFTER UPDATE OF title, description, subject ON tasks
+            WHEN OLD.title IS NOT NEW.title OR OLD.description IS NOT NEW.description
+                 OR OLD.subject IS NOT NEW.subject
+            BEGIN
+                INSERT INTO tasks_fts (tasks_fts, rowid, title, description, subject)
+                VALUES ('delete', OLD.id, OLD.title, OLD.description, OLD.subject);
+                INSERT INTO tasks_fts (rowid, title, description, subject)
+                VALUES (NEW.id, NEW.title, NEW.description, NEW.subject);
+            END
+        """);
+        
+        stmt.execute("""
+            CREATE VIRTUAL TABLE IF NOT EXISTS flashcards_fts USING fts5(
+                question, answer,
+                content = 'flashcards', content_rowid = 'id',
+                tokenize = 'unicode61 remove_diacritics 2'
+            )
+        """);
+        
+        stmt.execute("""
+            CREATE TRIGGER IF NOT EXISTS trg_flashcards_fts_insert AFTER INSERT ON flashcards
+            BEGIN
+                INSERT INTO flashcards_fts (rowid, question, answer)
+                VALUES (NEW.id, NEW.question, NEW.answer);
+            END
+        """);
+        
+        stmt.execute("""
+            CREATE TRIGGER IF NOT EXISTS trg_flashcards_fts_delete AFTER DELETE ON flashcards
+            BEGIN
+                INSERT INTO flashcards_fts (flashcards_fts, rowid, question, answer)
+                VALUES ('delete', OLD.id, OLD.question, OLD.answer);
+            END
+        """);
+        
+        stmt.execute("DROP TRIGGER IF EXISTS trg_flashcards_fts_update");
+        stmt.execute("""
+            CREATE TRIGGER trg_flashcards_fts_update AFTER UPDATE OF question, answer ON flashcards
+            WHEN OLD.question IS NOT NEW.question OR OLD.answer IS NOT NEW.answer
+            BEGIN
+                INSERT INTO flashcards_fts (flashcards_fts, rowid, question, answer)
+                VALUES ('delete', OLD.id, OLD.question, OLD.answer);
+                INSERT INTO flashcards_fts (rowid, question, answer)
+                VALUES (NEW.id, NEW.question, NEW.answer);
+            END
+        """);
+        
+        // Index rows that existed before the FTS tables were created
+        if (!tasksIndexExists) {
+            stmt.execute("INSERT INTO tasks_fts (tasks_fts) VALUES ('rebuild')");
+        }
+        if (!cardsIndexExists) {
+            stmt.execute("INSERT INTO flashcards_fts (flashcards_fts) VALUES ('rebuild')");
+        }
+    }
+    
+    private boolean tableExists(Statement stmt, String name) throws SQLException {
+        ResultSet rs = stmt.executeQuery("SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = '" + name + "'");
+        boolean exists = rs.next();
+        rs.close();
+        return exists;
+    }
+    
     /**
      * Check if database is empty (first run)
      */
     public boolean isDatabaseEmpty() {
+        Connection conn = null;
         try {
-            Statement stmt = connection.createStatement();
+            conn = pool.borrowReader();
+            Statement stmt = conn.createStatement();
             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) as count FROM users");
             int count = rs.getInt("count");
             rs.close();
@@ -222,47 +530,48 @@ public class DatabaseManager {
         } catch (SQLException e) {
             e.printStackTrace();
             return true;
+        } finally {
+            pool.release(conn);
         }
     }
     
     /**
-     * Close database connection
+     * Close all pooled database connections
      */
     public void close() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                System.out.println("✅ Database connection closed");
-            }
-        } catch (SQLException e) {
-            System.err.println("❌ Failed to close database connection!");
-            e.printStackTrace();
+        if (pool != null && !pool.isClosed()) {
+            pool.close();
+            System.out.println("✅ Database connection closed");
         }
     }
     
-    /**
-     * Execute a query and return ResultSet
-     */
-    public ResultSet executeQuery(String query) throws SQLException {
-        Statement stmt = connection.createStatement();
-        return stmt.executeQuery(query);
-    }
-    
     /**
      * Execute an update (INSERT, UPDATE, DELETE)
      */
     public int executeUpdate(String query) throws SQLException {
-        Statement stmt = connection.createStatement();
-        int result = stmt.executeUpdate(query);
-        stmt.close();
-        return result;
+        Connection conn = pool.borrowWriter();
+        try {
+            Statement stmt = conn.createStatement();
+            int result = stmt.executeUpdate(query);
+            stmt.close();
+            return result;
+        } finally {
+            pool.release(conn);
+        }
     }
     
     /**
      * Backup database to a specified location
      */
     public void backupDatabase(String backupPath) {
+        Connection conn = null;
         try {
+            // Pindahkan isi WAL ke file database utama sebelum file di-copy
+            conn = pool.borrowWriter();
+            Statement stmt = conn.createStatement();
+            stmt.execute("PRAGMA wal_checkpoint(TRUNCATE)");
+            stmt.close();
+            
             String userHome = System.getProperty("user.home");
             File dbDir = new File(userHome, DB_DIR);
             File sourceFile = new File(dbDir, DB_NAME);
@@ -278,6 +587,8 @@ public class DatabaseManager {
         } catch (Exception e) {
             System.err.println("❌ Backup failed!");
             e.printStackTrace();
+        } finally {
+            pool.release(conn);
         }
     }
     
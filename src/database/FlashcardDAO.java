@@ -4,11 +4,22 @@ import model.*;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * FlashcardDAO - Data Access Object untuk operasi database Flashcards
  */
 public class FlashcardDAO {
+    // Kolom flashcard (alias f) yang dibaca oleh createFlashcardFromResultSet
+    private static final String CARD_COLUMNS = """
+        f.id AS card_id, f.question, f.answer, f.ease_factor, f.repetitions, f.interval,
+        f.next_review, f.created_date AS card_created_date, f.last_reviewed,
+        f.total_reviews, f.correct_count
+        """;
+    
+    // Jumlah baris per executeBatch/commit saat import kartu
+    private static final int IMPORT_CHUNK_SIZE = 500;
+    
     private DatabaseManager dbManager;
     
     public FlashcardDAO(DatabaseManager dbManager) {
@@ -19,15 +30,25 @@ public class FlashcardDAO {
      * Save deck to database
      */
     public int saveDeck(int userId, Deck deck) {
+        return saveDeckWithCards(userId, deck, null);
+    }
+    
+    /**
+     * Save deck beserta semua kartunya dalam satu import batch
+     * Jika import gagal, deck yang baru dibuat dihapus lagi (semua atau tidak sama sekali)
+     */
+    public int saveDeckWithCards(int userId, Deck deck, ImportProgressListener listener) {
+        Connection conn = null;
+        int deckId = -1;
         try {
-            Connection conn = dbManager.getConnection();
+            conn = dbManager.borrowWriter();
             
             String sql = """
                 INSERT INTO decks (user_id, name, description, category, created_date)
                 VALUES (?, ?, ?, ?, ?)
             """;
             
-            PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            PreparedStatement stmt = dbManager.prepare(conn, sql);
             stmt.setInt(1, userId);
             stmt.setString(2, deck.getName());
             stmt.setString(3, deck.getDescription());
@@ -35,33 +56,157 @@ public class FlashcardDAO {
             stmt.setString(5, deck.getCreatedDate().toString());
             
             stmt.executeUpdate();
-            ResultSet generatedKeys = stmt.getGeneratedKeys();
-            int deckId = generatedKeys.getInt(1);
-            
-            generatedKeys.close();
-            stmt.close();
+            deckId = dbManager.lastInsertId(conn);
             
-            // Save all cards in this deck
-            for (Flashcard card : deck.getAllCards()) {
-                saveFlashcard(deckId, card);
-            }
+            insertFlashcards(conn, deckId, deck.getAllCards(), listener);
+            deck.setId(deckId);
             
-            System.out.println("✅ Deck saved: " + deck.getName() + " (ID: " + deckId + ")");
+            System.out.println("✅ Deck saved: " + deck.getName() + " (ID: " + deckId + ", "
+                + deck.getTotalCards() + " cards)");
             return deckId;
             
         } catch (SQLException e) {
             System.err.println("❌ Failed to save deck!");
             e.printStackTrace();
+            if (deckId > 0) {
+                deleteDeck(deckId);
+            }
             return -1;
+        } finally {
+            dbManager.release(conn);
+        }
+    }
+    
+    /**
+     * Bulk insert kartu ke deck yang sudah ada
+     * Mengembalikan jumlah kartu yang tersimpan (0 jika import gagal dan dibatalkan)
+     */
+    public int saveFlashcards(int deckId, Collection<Flashcard> cards, ImportProgressListener listener) {
+        Connection conn = null;
+        try {
+            conn = dbManager.borrowWriter();
+            return insertFlashcards(conn, deckId, cards, listener);
+            
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to import flashcards!");
+            e.printStackTrace();
+            return 0;
+        } finally {
+            dbManager.release(conn);
+        }
+    }
+    
+    /**
+     * Insert kartu dengan JDBC batch, commit setiap IMPORT_CHUNK_SIZE baris.
+     * Kalau dipanggil di dalam transaksi yang sudah terbuka (mis. write-behind flush),
+     * commit diserahkan ke pemilik transaksi tersebut.
+     * Saat gagal, chunk yang sedang berjalan di-rollback dan chunk yang sudah
+     * di-commit dihapus lagi, lalu SQLException dilempar ulang.
+     */
+    private int insertFlashcards(Connection conn, int deckId, Collection<Flashcard> cards,
+                                 ImportProgressListener listener) throws SQLException {
+        int total = cards.size();
+        if (total == 0) {
+            if (listener != null) listener.onProgress(0, 0);
+            return 0;
+        }
+        
+        boolean ownsTransaction = conn.getAutoCommit();
+        
+        // Writer dipegang sepanjang import, jadi semua id baru pasti lebih besar dari ini
+        long lastIdBefore = 0;
+        if (ownsTransaction) {
+            PreparedStatement maxStmt = dbManager.prepare(conn, "SELECT COALESCE(MAX(id), 0) FROM flashcards");
+            ResultSet rs = maxStmt.executeQuery();
+            lastIdBefore = rs.getLong(1);
+            rs.close();
+            conn.setAutoCommit(false);
+        }
+        
+        String sql = """
+            INSERT INTO flashcards (deck_id, question, answer, ease_factor, repetitions, 
+                                   interval, next_review, created_date, last_reviewed, 
+                                   total_reviews, correct_count)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+        
+        int saved = 0;
+        // Id baru baru diberikan ke objek setelah seluruh import berhasil
+        Flashcard[] inserted = new Flashcard[total];
+        int[] insertedIds = new int[total];
+        try {
+            PreparedStatement stmt = dbManager.prepare(conn, sql);
+            List<Flashcard> chunk = new ArrayList<>(Math.min(total, IMPORT_CHUNK_SIZE));
+            
+            for (Flashcard card : cards) {
+                bindFlashcard(stmt, deckId, card);
+                stmt.addBatch();
+                chunk.add(card);
+                
+                if (chunk.size() == IMPORT_CHUNK_SIZE) {
+                    saved = flushChunk(conn, stmt, chunk, saved, inserted, insertedIds);
+                    if (ownsTransaction) conn.commit();
+                    if (listener != null) listener.onProgress(saved, total);
+                }
+            }
+            
+            if (!chunk.isEmpty()) {
+                saved = flushChunk(conn, stmt, chunk, saved, inserted, insertedIds);
+                if (ownsTransaction) conn.commit();
+                if (listener != null) listener.onProgress(saved, total);
+            }
+            
+            for (int i = 0; i < saved; i++) {
+                inserted[i].setId(insertedIds[i]);
+            }
+            return saved;
+            
+        } catch (SQLException e) {
+            if (ownsTransaction) {
+                conn.rollback();
+                if (saved > 0) {
+                    PreparedStatement undo = dbManager.prepare(conn,
+                        "DELETE FROM flashcards WHERE deck_id = ? AND id > ?");
+                    undo.setInt(1, deckId);
+                    undo.setLong(2, lastIdBefore);
+                    undo.executeUpdate();
+                    conn.commit();
+                }
+            }
+            throw e;
+        } finally {
+            if (ownsTransaction) {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+    
+    /**
+     * Execute one import chunk and record the ids SQLite assigned to its rows
+     */
+    private int flushChunk(Connection conn, PreparedStatement stmt, List<Flashcard> chunk, int saved,
+                           Flashcard[] inserted, int[] insertedIds) throws SQLException {
+        stmt.executeBatch();
+        
+        // Rowid berurutan karena writer dipegang eksklusif selama batch
+        int firstId = dbManager.lastInsertId(conn) - chunk.size() + 1;
+        
+        for (int i = 0; i < chunk.size(); i++) {
+            inserted[saved + i] = chunk.get(i);
+            insertedIds[saved + i] = firstId + i;
         }
+        int newSaved = saved + chunk.size();
+        chunk.clear();
+        return newSaved;
     }
     
     /**
      * Update deck
      */
     public void updateDeck(int deckId, Deck deck) {
+        Connection conn = null;
         try {
-            Connection conn = dbManager.getConnection();
+            conn = dbManager.borrowWriter();
             
             String sql = """
                 UPDATE decks 
@@ -69,20 +214,21 @@ public class FlashcardDAO {
                 WHERE id = ?
             """;
             
-            PreparedStatement stmt = conn.prepareStatement(sql);
+            PreparedStatement stmt = dbManager.prepare(conn, sql);
             stmt.setString(1, deck.getName());
             stmt.setString(2, deck.getDescription());
             stmt.setString(3, deck.getCategory());
             stmt.setInt(4, deckId);
             
             stmt.executeUpdate();
-            stmt.close();
             
             System.out.println("✅ Deck updated: " + deck.getName());
             
         } catch (SQLException e) {
             System.err.println("❌ Failed to update deck!");
             e.printStackTrace();
+        } finally {
+            dbManager.release(conn);
         }
     }
     
@@ -90,82 +236,166 @@ public class FlashcardDAO {
      * Delete deck
      */
     public void deleteDeck(int deckId) {
+        Connection conn = null;
         try {
-            Connection conn = dbManager.getConnection();
+            conn = dbManager.borrowWriter();
             
             // First delete all flashcards in this deck
             String deleteCardsSql = "DELETE FROM flashcards WHERE deck_id = ?";
-            PreparedStatement deleteCardsStmt = conn.prepareStatement(deleteCardsSql);
+            PreparedStatement deleteCardsStmt = dbManager.prepare(conn, deleteCardsSql);
             deleteCardsStmt.setInt(1, deckId);
             deleteCardsStmt.executeUpdate();
-            deleteCardsStmt.close();
             
             // Then delete the deck
             String sql = "DELETE FROM decks WHERE id = ?";
-            PreparedStatement stmt = conn.prepareStatement(sql);
+            PreparedStatement stmt = dbManager.prepare(conn, sql);
             stmt.setInt(1, deckId);
             stmt.executeUpdate();
-            stmt.close();
             
             System.out.println("✅ Deck deleted (ID: " + deckId + ")");
             
         } catch (SQLException e) {
             System.err.println("❌ Failed to delete deck!");
             e.printStackTrace();
+        } finally {
+            dbManager.release(conn);
         }
     }
     
     /**
-     * Load all decks for a user
+     * Load all decks for a user (with their cards)
      */
     public List<Deck> loadAllDecks(int userId) {
         List<Deck> decks = new ArrayList<>();
-        
+        streamDecks(userId, decks::add);
+        System.out.println("✅ Loaded " + decks.size() + " decks");
+        return decks;
+    }
+    
+    /**
+     * Stream decks and their cards from one ordered LEFT JOIN query
+     * Rows arrive grouped per deck; each deck is handed to the consumer as soon as its last card is read
+     */
+    public void streamDecks(int userId, Consumer<Deck> consumer) {
+        Connection conn = null;
         try {
-            Connection conn = dbManager.getConnection();
+            conn = dbManager.borrowReader();
             
-            String sql = "SELECT * FROM decks WHERE user_id = ? ORDER BY created_date DESC";
-            PreparedStatement stmt = conn.prepareStatement(sql);
+            String sql = """
+                SELECT d.id AS deck_id, d.name AS deck_name, d.description AS deck_description,
+                       d.category AS deck_category, d.created_date AS deck_created_date,
+                """ + CARD_COLUMNS + """
+                FROM decks d
+                LEFT JOIN flashcards f ON f.deck_id = d.id
+                WHERE d.user_id = ?
+                ORDER BY d.created_date DESC, d.id, f.created_date ASC, f.id
+            """;
+            
+            PreparedStatement stmt = dbManager.prepare(conn, sql);
             stmt.setInt(1, userId);
             ResultSet rs = stmt.executeQuery();
             
+            Deck currentDeck = null;
+            int currentDeckId = -1;
+            
             while (rs.next()) {
-                int deckId = rs.getInt("id");
-                String name = rs.getString("name");
-                String description = rs.getString("description");
-                String category = rs.getString("category");
+                int deckId = rs.getInt("deck_id");
                 
-                Deck deck = new Deck(name, description);
-                deck.setCategory(category);
-                
-                // Load all flashcards for this deck
-                List<Flashcard> cards = loadFlashcardsByDeck(deckId);
-                for (Flashcard card : cards) {
-                    deck.addCard(card);
+                if (currentDeck == null || deckId != currentDeckId) {
+                    // Deck sebelumnya sudah lengkap
+                    if (currentDeck != null) {
+                        consumer.accept(currentDeck);
+                    }
+                    currentDeck = new Deck(rs.getString("deck_name"), rs.getString("deck_description"));
+                    currentDeck.setCategory(rs.getString("deck_category"));
+                    currentDeck.setId(deckId);
+                    currentDeckId = deckId;
                 }
                 
-                decks.add(deck);
+                // LEFT JOIN: deck tanpa kartu menghasilkan satu baris dengan card_id NULL
+                rs.getInt("card_id");
+                if (!rs.wasNull()) {
+                    currentDeck.addCard(createFlashcardFromResultSet(rs));
+                }
             }
             
-            rs.close();
-            stmt.close();
+            if (currentDeck != null) {
+                consumer.accept(currentDeck);
+            }
             
-            System.out.println("✅ Loaded " + decks.size() + " decks");
+            rs.close();
             
         } catch (SQLException e) {
             System.err.println("❌ Failed to load decks!");
             e.printStackTrace();
+        } finally {
+            dbManager.release(conn);
         }
+    }
+    
+    /**
+     * Load deck metadata with per-deck card counts, without loading the cards themselves
+     */
+    public List<DeckSummary> loadDeckSummaries(int userId) {
+        List<DeckSummary> summaries = new ArrayList<>();
         
-        return decks;
+        Connection conn = null;
+        try {
+            conn = dbManager.borrowReader();
+            
+            String sql = """
+                SELECT d.id, d.name, d.description, d.category, d.created_date,
+                       COUNT(f.id) AS total_cards,
+                       COALESCE(SUM(f.next_review <= ?), 0) AS due_cards,
+                       COALESCE(SUM(f.repetitions >= 5), 0) AS mastered_cards,
+                       COALESCE(AVG(CASE WHEN f.total_reviews > 0
+                                         THEN f.correct_count * 100.0 / f.total_reviews
+                                         ELSE 0 END), 0) AS average_mastery
+                FROM decks d
+                LEFT JOIN flashcards f ON f.deck_id = d.id
+                WHERE d.user_id = ?
+                GROUP BY d.id
+                ORDER BY d.created_date DESC, d.id
+            """;
+            
+            PreparedStatement stmt = dbManager.prepare(conn, sql);
+            stmt.setString(1, LocalDateTime.now().toString());
+            stmt.setInt(2, userId);
+            ResultSet rs = stmt.executeQuery();
+            
+            while (rs.next()) {
+                summaries.add(new DeckSummary(
+                    rs.getInt("id"),
+                    rs.getString("name"),
+                    rs.getString("description"),
+                    rs.getString("category"),
+                    LocalDateTime.parse(rs.getString("created_date")),
+                    rs.getInt("total_cards"),
+                    rs.getInt("due_cards"),
+                    rs.getInt("mastered_cards"),
+                    rs.getDouble("average_mastery")
+                ));
+            }
+            
+            rs.close();
+            
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to load deck summaries!");
+            e.printStackTrace();
+        } finally {
+            dbManager.release(conn);
+        }
+        
+        return summaries;
     }
     
     /**
      * Save flashcard to database
      */
     public int saveFlashcard(int deckId, Flashcard card) {
+        Connection conn = null;
         try {
-            Connection conn = dbManager.getConnection();
+            conn = dbManager.borrowWriter();
             
             String sql = """
                 INSERT INTO flashcards (deck_id, question, answer, ease_factor, repetitions, 
@@ -174,25 +404,12 @@ public class FlashcardDAO {
                 VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
             """;
             
-            PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-            stmt.setInt(1, deckId);
-            stmt.setString(2, card.getQuestion());
-            stmt.setString(3, card.getAnswer());
-            stmt.setInt(4, 2500); // Default ease factor
-            stmt.setInt(5, card.getRepetitions());
-            stmt.setInt(6, card.getInterval());
-            stmt.setString(7, card.getNextReview().toString());
-            stmt.setString(8, card.getCreatedDate().toString());
-            stmt.setString(9, card.getLastReviewed() != null ? card.getLastReviewed().toString() : null);
-            stmt.setInt(10, card.getTotalReviews());
-            stmt.setInt(11, card.getCorrectCount());
+            PreparedStatement stmt = dbManager.prepare(conn, sql);
+            bindFlashcard(stmt, deckId, card);
             
             stmt.executeUpdate();
-            ResultSet generatedKeys = stmt.getGeneratedKeys();
-            int cardId = generatedKeys.getInt(1);
-            
-            generatedKeys.close();
-            stmt.close();
+            int cardId = dbManager.lastInsertId(conn);
+            card.setId(cardId);
             
             return cardId;
             
@@ -200,62 +417,103 @@ public class FlashcardDAO {
             System.err.println("❌ Failed to save flashcard!");
             e.printStackTrace();
             return -1;
+        } finally {
+            dbManager.release(conn);
         }
     }
     
+    // Isi parameter INSERT flashcards (urutan kolom sama dengan saveFlashcard dan insertFlashcards)
+    private void bindFlashcard(PreparedStatement stmt, int deckId, Flashcard card) throws SQLException {
+        stmt.setInt(1, deckId);
+        stmt.setString(2, card.getQuestion());
+        stmt.setString(3, card.getAnswer());
+        stmt.setInt(4, card.getEaseFactor());
+        stmt.setInt(5, card.getRepetitions());
+        stmt.setInt(6, card.getInterval());
+        stmt.setString(7, card.getNextReview().toString());
+        stmt.setString(8, card.getCreatedDate().toString());
+        stmt.setString(9, card.getLastReviewed() != null ? card.getLastReviewed().toString() : null);
+        stmt.setInt(10, card.getTotalReviews());
+        stmt.setInt(11, card.getCorrectCount());
+    }
+    
     /**
      * Update flashcard
      */
     public void updateFlashcard(int cardId, Flashcard card) {
         try {
-            Connection conn = dbManager.getConnection();
-            
-            String sql = """
-                UPDATE flashcards 
-                SET question = ?, answer = ?, ease_factor = ?, repetitions = ?, 
-                    interval = ?, next_review = ?, last_reviewed = ?, 
-                    total_reviews = ?, correct_count = ?
-                WHERE id = ?
-            """;
-            
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setString(1, card.getQuestion());
-            stmt.setString(2, card.getAnswer());
-            stmt.setInt(3, 2500); // Ease factor
-            stmt.setInt(4, card.getRepetitions());
-            stmt.setInt(5, card.getInterval());
-            stmt.setString(6, card.getNextReview().toString());
-            stmt.setString(7, card.getLastReviewed() != null ? card.getLastReviewed().toString() : null);
-            stmt.setInt(8, card.getTotalReviews());
-            stmt.setInt(9, card.getCorrectCount());
-            stmt.setInt(10, cardId);
-            
-            stmt.executeUpdate();
-            stmt.close();
-            
+            flashcardUpdate(cardId, card).run();
         } catch (SQLException e) {
             System.err.println("❌ Failed to update flashcard!");
             e.printStackTrace();
         }
     }
     
+    /**
+     * Write update flashcard dengan nilai yang diambil sekarang
+     */
+    SqlWrite flashcardUpdate(int cardId, Flashcard card) {
+        String question = card.getQuestion();
+        String answer = card.getAnswer();
+        int easeFactor = card.getEaseFactor();
+        int repetitions = card.getRepetitions();
+        int interval = card.getInterval();
+        String nextReview = card.getNextReview().toString();
+        String lastReviewed = card.getLastReviewed() != null ? card.getLastReviewed().toString() : null;
+        int totalReviews = card.getTotalReviews();
+        int correctCount = card.getCorrectCount();
+        
+        return () -> {
+            Connection conn = null;
+            try {
+                conn = dbManager.borrowWriter();
+                
+                String sql = """
+                    UPDATE flashcards 
+                    SET question = ?, answer = ?, ease_factor = ?, repetitions = ?, 
+                        interval = ?, next_review = ?, last_reviewed = ?, 
+                        total_reviews = ?, correct_count = ?
+                    WHERE id = ?
+                """;
+                
+                PreparedStatement stmt = dbManager.prepare(conn, sql);
+                stmt.setString(1, question);
+                stmt.setString(2, answer);
+                stmt.setInt(3, easeFactor);
+                stmt.setInt(4, repetitions);
+                stmt.setInt(5, interval);
+                stmt.setString(6, nextReview);
+                stmt.setString(7, lastReviewed);
+                stmt.setInt(8, totalReviews);
+                stmt.setInt(9, correctCount);
+                stmt.setInt(10, cardId);
+                
+                stmt.executeUpdate();
+            } finally {
+                dbManager.release(conn);
+            }
+        };
+    }
+    
     /**
      * Delete flashcard
      */
     public void deleteFlashcard(int cardId) {
+        Connection conn = null;
         try {
-            Connection conn = dbManager.getConnection();
+            conn = dbManager.borrowWriter();
             
             String sql = "DELETE FROM flashcards WHERE id = ?";
-            PreparedStatement stmt = conn.prepareStatement(sql);
+            PreparedStatement stmt = dbManager.prepare(conn, sql);
             stmt.setInt(1, cardId);
             
             stmt.executeUpdate();
-            stmt.close();
             
         } catch (SQLException e) {
             System.err.println("❌ Failed to delete flashcard!");
             e.printStackTrace();
+        } finally {
+            dbManager.release(conn);
         }
     }
     
@@ -265,85 +523,86 @@ public class FlashcardDAO {
     public List<Flashcard> loadFlashcardsByDeck(int deckId) {
         List<Flashcard> cards = new ArrayList<>();
         
+        Connection conn = null;
         try {
-            Connection conn = dbManager.getConnection();
+            conn = dbManager.borrowReader();
             
-            String sql = "SELECT * FROM flashcards WHERE deck_id = ? ORDER BY created_date ASC";
-            PreparedStatement stmt = conn.prepareStatement(sql);
+            String sql = "SELECT " + CARD_COLUMNS + " FROM flashcards f WHERE f.deck_id = ? ORDER BY f.created_date ASC, f.id";
+            PreparedStatement stmt = dbManager.prepare(conn, sql);
             stmt.setInt(1, deckId);
             ResultSet rs = stmt.executeQuery();
             
             while (rs.next()) {
-                String question = rs.getString("question");
-                String answer = rs.getString("answer");
-                int repetitions = rs.getInt("repetitions");
-                int interval = rs.getInt("interval");
-                LocalDateTime nextReview = LocalDateTime.parse(rs.getString("next_review"));
-                String lastReviewedStr = rs.getString("last_reviewed");
-                int totalReviews = rs.getInt("total_reviews");
-                int correctCount = rs.getInt("correct_count");
-                
-                Flashcard card = new Flashcard(question, answer);
-                
-                // Restore review state by simulating reviews
-                for (int i = 0; i < totalReviews; i++) {
-                    // This is a simplified restoration
-                    // In a real scenario, you'd need to store more detailed history
-                    if (i < correctCount) {
-                        card.recordReview(4); // Good
-                    } else {
-                        card.recordReview(0); // Again
-                    }
-                }
-                
-                cards.add(card);
+                cards.add(createFlashcardFromResultSet(rs));
             }
             
             rs.close();
-            stmt.close();
             
         } catch (SQLException e) {
             System.err.println("❌ Failed to load flashcards!");
             e.printStackTrace();
+        } finally {
+            dbManager.release(conn);
         }
         
         return cards;
     }
     
+    /**
+     * Create Flashcard object from a row selected with CARD_COLUMNS
+     */
+    private Flashcard createFlashcardFromResultSet(ResultSet rs) throws SQLException {
+        String lastReviewed = rs.getString("last_reviewed");
+        
+        // Restore SM-2 state directly from the stored columns (one pass, no review replay)
+        Flashcard card = Flashcard.restore(
+            rs.getString("question"),
+            rs.getString("answer"),
+            rs.getInt("ease_factor"),
+            rs.getInt("repetitions"),
+            rs.getInt("interval"),
+            LocalDateTime.parse(rs.getString("next_review")),
+            LocalDateTime.parse(rs.getString("card_created_date")),
+            lastReviewed != null ? LocalDateTime.parse(lastReviewed) : null,
+            rs.getInt("total_reviews"),
+            rs.getInt("correct_count")
+        );
+        card.setId(rs.getInt("card_id"));
+        return card;
+    }
+    
     /**
      * Get cards due for review
      */
     public List<Flashcard> getCardsDueForReview(int deckId) {
         List<Flashcard> dueCards = new ArrayList<>();
         
+        Connection conn = null;
         try {
-            Connection conn = dbManager.getConnection();
+            conn = dbManager.borrowReader();
             
-            String sql = """
-                SELECT * FROM flashcards 
-                WHERE deck_id = ? AND next_review <= ?
-                ORDER BY next_review ASC
+            String sql = "SELECT " + CARD_COLUMNS + """
+                FROM flashcards f
+                WHERE f.deck_id = ? AND f.next_review <= ?
+                ORDER BY f.next_review ASC
             """;
             
-            PreparedStatement stmt = conn.prepareStatement(sql);
+            PreparedStatement stmt = dbManager.prepare(conn, sql);
             stmt.setInt(1, deckId);
             stmt.setString(2, LocalDateTime.now().toString());
             ResultSet rs = stmt.executeQuery();
             
             while (rs.next()) {
-                String question = rs.getString("question");
-                String answer = rs.getString("answer");
-                
-                Flashcard card = new Flashcard(question, answer);
-                dueCards.add(card);
+                dueCards.add(createFlashcardFromResultSet(rs));
             }
             
             rs.close();
-            stmt.close();
             
         } catch (SQLException e) {
             System.err.println("❌ Failed to get due cards!");
             e.printStackTrace();
+        } finally {
+            dbManager.release(conn);
         }
         
         return dueCards;
@@ -355,45 +614,96 @@ public class FlashcardDAO {
     public Map<String, Integer> getDeckStatistics(int deckId) {
         Map<String, Integer> stats = new HashMap<>();
         
+        Connection conn = null;
         try {
-            Connection conn = dbManager.getConnection();
+            conn = dbManager.borrowReader();
             
             // Total cards
             String totalSql = "SELECT COUNT(*) as count FROM flashcards WHERE deck_id = ?";
-            PreparedStatement totalStmt = conn.prepareStatement(totalSql);
+            PreparedStatement totalStmt = dbManager.prepare(conn, totalSql);
             totalStmt.setInt(1, deckId);
             ResultSet totalRs = totalStmt.executeQuery();
             stats.put("total", totalRs.getInt("count"));
             totalRs.close();
-            totalStmt.close();
             
             // Cards due for review
             String dueSql = """
                 SELECT COUNT(*) as count FROM flashcards 
                 WHERE deck_id = ? AND next_review <= ?
             """;
-            PreparedStatement dueStmt = conn.prepareStatement(dueSql);
+            PreparedStatement dueStmt = dbManager.prepare(conn, dueSql);
             dueStmt.setInt(1, deckId);
             dueStmt.setString(2, LocalDateTime.now().toString());
             ResultSet dueRs = dueStmt.executeQuery();
             stats.put("due", dueRs.getInt("count"));
             dueRs.close();
-            dueStmt.close();
             
             // Mastered cards (repetitions >= 5)
             String masteredSql = "SELECT COUNT(*) as count FROM flashcards WHERE deck_id = ? AND repetitions >= 5";
-            PreparedStatement masteredStmt = conn.prepareStatement(masteredSql);
+            PreparedStatement masteredStmt = dbManager.prepare(conn, masteredSql);
             masteredStmt.setInt(1, deckId);
             ResultSet masteredRs = masteredStmt.executeQuery();
             stats.put("mastered", masteredRs.getInt("count"));
             masteredRs.close();
-            masteredStmt.close();
             
         } catch (SQLException e) {
             System.err.println("❌ Failed to get deck statistics!");
             e.printStackTrace();
+        } finally {
+            dbManager.release(conn);
         }
         
         return stats;
     }
+    
+    /**
+     * Ranked full-text search over question and answer of all the user's cards
+     */
+    public List<SearchResult> searchFlashcards(int userId, String query, int limit) {
+        List<SearchResult> results = new ArrayList<>();
+        String ftsQuery = SearchResult.toPrefixQuery(query);
+        if (ftsQuery == null) return results;
+        
+        Connection conn = null;
+        try {
+            conn = dbManager.borrowReader();
+            
+            String sql = """
+                SELECT f.id, f.question,
+                       snippet(flashcards_fts, -1, '[', ']', '…', 12) AS snippet,
+                       bm25(flashcards_fts, 2.0, 1.0) AS score
+                FROM flashcards_fts
+                JOIN flashcards f ON f.id = flashcards_fts.rowid
+                JOIN decks d ON d.id = f.deck_id
+                WHERE flashcards_fts MATCH ? AND d.user_id = ?
+                ORDER BY score
+                LIMIT ?
+            """;
+            
+            PreparedStatement stmt = dbManager.prepare(conn, sql);
+            stmt.setString(1, ftsQuery);
+            stmt.setInt(2, userId);
+            stmt.setInt(3, limit);
+            ResultSet rs = stmt.executeQuery();
+            
+            while (rs.next()) {
+                results.add(new SearchResult(
+                    rs.getInt("id"),
+                    rs.getString("question"),
+                    rs.getString("snippet"),
+                    rs.getDouble("score")
+                ));
+            }
+            
+            rs.close();
+            
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to search flashcards!");
+            e.printStackTrace();
+        } finally {
+            dbManager.release(conn);
+        }
+        
+        return results;
+    }
 }
\ No newline at end of file
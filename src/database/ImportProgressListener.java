@@ -0,0 +1,15 @@
+package database;
+
+/**
+ * ImportProgressListener - Callback progress untuk import kartu dalam jumlah besar
+ * Dipanggil dari thread yang menjalankan import (biasanya background thread),
+ * jadi UI harus memakai Platform.runLater untuk mengupdate progress bar.
+ */
+@FunctionalInterface
+public interface ImportProgressListener {
+    /**
+     * @param saved jumlah kartu yang sudah di-commit
+     * @param total jumlah kartu yang diimport
+     */
+    void onProgress(int saved, int total);
+}
@@ -0,0 +1,55 @@
+package database;
+
+/**
+ * SearchResult - Satu hasil full-text search (id baris + potongan teks yang cocok)
+ */
+public class SearchResult {
+    private final int id;
+    private final String title;
+    private final String snippet;
+    private final double rank;
+    
+    public SearchResult(int id, String title, String snippet, double rank) {
+        this.id = id;
+        this.title = title;
+        this.snippet = snippet;
+        this.rank = rank;
+    }
+    
+    /**
+     * Build an FTS5 MATCH expression where every word is a prefix term ("calc"*),
+     * so results update while the user is still typing. Returns null if the input has no words.
+     */
+    static String toPrefixQuery(String input) {
+        if (input == null) return null;
+        
+        StringBuilder query = new StringBuilder();
+        // Hanya huruf/angka yang dipakai, jadi operator FTS5 dari input user tidak ikut terbaca
+        for (String word : input.split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) continue;
+            if (query.length() > 0) query.append(' ');
+            query.append('"').append(word).append("\"*");
+        }
+        return query.length() == 0 ? null : query.toString();
+    }
+    
+    // Getters
+    public int getId() {
+        return id;
+    }
+    
+    public String getTitle() {
+        return title;
+    }
+    
+    public String getSnippet() {
+        return snippet;
+    }
+    
+    /**
+     * bm25 score - lower is a better match
+     */
+    public double getRank() {
+        return rank;
+    }
+}
@@ -0,0 +1,13 @@
+package database;
+
+import java.sql.SQLException;
+
+/**
+ * SqlWrite - Satu write database yang sudah mengambil nilai entity saat dibuat
+ * Dipakai WriteBehindService: error dilempar ke pemanggil (tidak ditelan DAO)
+ * sehingga write yang gagal bisa di-rollback dan tidak dihitung sebagai flushed.
+ */
+@FunctionalInterface
+interface SqlWrite {
+    void run() throws SQLException;
+}
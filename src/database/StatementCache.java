@@ -0,0 +1,80 @@
+package database;
+
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * StatementCache - Cache PreparedStatement per koneksi dengan eviction LRU
+ * Key-nya adalah teks SQL, jadi statement yang sama tidak di-parse ulang setiap kali DAO dipanggil.
+ * Tidak thread-safe: aman karena koneksi di pool hanya dipakai oleh satu thread pada satu waktu.
+ */
+class StatementCache {
+    private final Connection conn;
+    private final Map<String, PreparedStatement> statements;
+
+    // Statistik dibagi oleh semua cache di pool
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    private final AtomicLong evictions;
+
+    StatementCache(Connection conn, int maxSize, AtomicLong hits, AtomicLong misses, AtomicLong evictions) {
+        this.conn = conn;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        // accessOrder = true -> urutan LRU
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > maxSize) {
+                    closeQuietly(eldest.getValue());
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Ambil statement dari cache atau prepare yang baru
+     */
+    PreparedStatement prepare(String sql, int autoGeneratedKeys) throws SQLException {
+        String key = autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS ? "K:" + sql : sql;
+
+        PreparedStatement stmt = statements.get(key);
+        if (stmt != null && !stmt.isClosed()) {
+            hits.incrementAndGet();
+            stmt.clearParameters();
+            return stmt;
+        }
+
+        misses.incrementAndGet();
+        stmt = conn.prepareStatement(sql, autoGeneratedKeys);
+        statements.put(key, stmt);
+        return stmt;
+    }
+
+    int size() {
+        return statements.size();
+    }
+
+    /**
+     * Tutup semua statement (dipanggil saat koneksi ditutup/diganti)
+     */
+    void close() {
+        for (PreparedStatement stmt : statements.values()) {
+            closeQuietly(stmt);
+        }
+        statements.clear();
+    }
+
+    private static void closeQuietly(PreparedStatement stmt) {
+        try {
+            stmt.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+}
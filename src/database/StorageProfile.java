@@ -0,0 +1,90 @@
+package database;
+
+import java.sql.*;
+
+/**
+ * StorageProfile - Preset durability/performance untuk database SQLite
+ * Semua profil memakai WAL; yang berbeda adalah seberapa sering SQLite melakukan fsync
+ * dan berapa banyak memori yang dipakai untuk cache.
+ *
+ * Pilih dengan system property: -Dstudyplanner.storage=safe|balanced|fast
+ */
+public enum StorageProfile {
+    // fsync setiap commit, aman dari power loss
+    SAFE("FULL", -2_000, 0L, "DEFAULT", 10_000),
+    // fsync hanya saat checkpoint WAL, commit terakhir bisa hilang saat power loss
+    BALANCED("NORMAL", -8_000, 64L * 1024 * 1024, "MEMORY", 5_000),
+    // tanpa fsync, paling cepat untuk disk lambat; database tetap konsisten setelah crash aplikasi
+    FAST("OFF", -32_000, 256L * 1024 * 1024, "MEMORY", 3_000);
+
+    public static final String PROPERTY = "studyplanner.storage";
+
+    private final String synchronous;
+    private final int cacheSizeKb; // nilai negatif = KiB (konvensi PRAGMA cache_size)
+    private final long mmapSize;
+    private final String tempStore;
+    private final int busyTimeoutMs;
+
+    StorageProfile(String synchronous, int cacheSizeKb, long mmapSize, String tempStore, int busyTimeoutMs) {
+        this.synchronous = synchronous;
+        this.cacheSizeKb = cacheSizeKb;
+        this.mmapSize = mmapSize;
+        this.tempStore = tempStore;
+        this.busyTimeoutMs = busyTimeoutMs;
+    }
+
+    /**
+     * Ambil profil dari system property, default BALANCED
+     */
+    public static StorageProfile fromSystemProperty() {
+        return fromName(System.getProperty(PROPERTY));
+    }
+
+    public static StorageProfile fromName(String name) {
+        if (name == null || name.isBlank()) return BALANCED;
+        try {
+            return valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("⚠️ Unknown storage profile '" + name + "', using BALANCED");
+            return BALANCED;
+        }
+    }
+
+    /**
+     * Terapkan PRAGMA per-koneksi (journal_mode hanya perlu di koneksi writer)
+     */
+    void apply(Connection conn, boolean writer) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            if (writer) {
+                // journal_mode bersifat persisten di file database
+                stmt.executeQuery("PRAGMA journal_mode = WAL").close();
+            }
+            stmt.execute("PRAGMA synchronous = " + synchronous);
+            stmt.execute("PRAGMA cache_size = " + cacheSizeKb);
+            stmt.executeQuery("PRAGMA mmap_size = " + mmapSize).close();
+            stmt.execute("PRAGMA temp_store = " + tempStore);
+            stmt.execute("PRAGMA busy_timeout = " + busyTimeoutMs);
+        }
+    }
+
+    // Getters
+    public String getSynchronous() {
+        return synchronous;
+    }
+
+    public int getCacheSizeKb() {
+        return cacheSizeKb;
+    }
+
+    public long getMmapSize() {
+        return mmapSize;
+    }
+
+    public String getTempStore() {
+        return tempStore;
+    }
+
+    public int getBusyTimeoutMs() {
+        return busyTimeoutMs;
+    }
+}
@@ -17,11 +17,12 @@ public class TaskDAO {
     
     /**
      * Save task ke database
-     * Returns generated task ID
+     * Returns generated task ID (juga di-set ke task.setId)
      */
     public int saveTask(int userId, Task task) {
+        Connection conn = null;
         try {
-            Connection conn = dbManager.getConnection();
+            conn = dbManager.borrowWriter();
             
             String sql = """
                 INSERT INTO tasks (user_id, title, description, task_type, due_date, created_date,
@@ -29,7 +30,7 @@ public class TaskDAO {
                 VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
             """;
             
-            PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            PreparedStatement stmt = dbManager.prepare(conn, sql);
             stmt.setInt(1, userId);
             stmt.setString(2, task.getTitle());
             stmt.setString(3, task.getDescription());
@@ -43,11 +44,20 @@ public class TaskDAO {
             stmt.setString(11, getSubject(task));
             
             stmt.executeUpdate();
-            ResultSet generatedKeys = stmt.getGeneratedKeys();
-            int taskId = generatedKeys.getInt(1);
-            
-            generatedKeys.close();
-            stmt.close();
+            int taskId = dbManager.lastInsertId(conn);
+            task.setId(taskId);
+            
+            // dependency yang dipasang sebelum task punya id ikut disimpan
+            if (!task.getDependencies().isEmpty()) {
+                PreparedStatement depStmt = dbManager.prepare(conn,
+                    "INSERT OR IGNORE INTO task_dependencies (task_id, depends_on_id) VALUES (?, ?)");
+                for (Task prerequisite : task.getDependencies()) {
+                    if (prerequisite.getId() <= 0) continue;
+                    depStmt.setInt(1, taskId);
+                    depStmt.setInt(2, prerequisite.getId());
+                    depStmt.executeUpdate();
+                }
+            }
             
             System.out.println("✅ Task saved: " + task.getTitle() + " (ID: " + taskId + ")");
             return taskId;
@@ -56,6 +66,8 @@ public class TaskDAO {
             System.err.println("❌ Failed to save task!");
             e.printStackTrace();
             return -1;
+        } finally {
+            dbManager.release(conn);
         }
     }
     
@@ -64,55 +76,82 @@ public class TaskDAO {
      */
     public void updateTask(int taskId, Task task) {
         try {
-            Connection conn = dbManager.getConnection();
-            
-            String sql = """
-                UPDATE tasks 
-                SET title = ?, description = ?, due_date = ?, status = ?, 
-                    priority = ?, estimated_hours = ?, actual_hours = ?
-                WHERE id = ?
-            """;
-            
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setString(1, task.getTitle());
-            stmt.setString(2, task.getDescription());
-            stmt.setString(3, task.getDueDate().toString());
-            stmt.setString(4, task.getStatus().toString());
-            stmt.setString(5, task.getPriority().toString());
-            stmt.setInt(6, task.getEstimatedHours());
-            stmt.setInt(7, task.getActualHours());
-            stmt.setInt(8, taskId);
-            
-            stmt.executeUpdate();
-            stmt.close();
-            
-            System.out.println("✅ Task updated: " + task.getTitle());
-            
+            taskUpdate(taskId, task).run();
         } catch (SQLException e) {
             System.err.println("❌ Failed to update task!");
             e.printStackTrace();
         }
     }
     
+    /**
+     * Write update task dengan nilai yang diambil sekarang
+     */
+    SqlWrite taskUpdate(int taskId, Task task) {
+        String title = task.getTitle();
+        if (taskId <= 0) {
+            return () -> System.err.println("⚠️ Task not saved yet, skipping update: " + title);
+        }
+        String description = task.getDescription();
+        String dueDate = task.getDueDate().toString();
+        String status = task.getStatus().toString();
+        String priority = task.getPriority().toString();
+        int estimatedHours = task.getEstimatedHours();
+        int actualHours = task.getActualHours();
+        
+        return () -> {
+            Connection conn = null;
+            try {
+                conn = dbManager.borrowWriter();
+                
+                String sql = """
+                    UPDATE tasks 
+                    SET title = ?, description = ?, due_date = ?, status = ?, 
+                        priority = ?, estimated_hours = ?, actual_hours = ?
+                    WHERE id = ?
+                """;
+                
+                PreparedStatement stmt = dbManager.prepare(conn, sql);
+                stmt.setString(1, title);
+                stmt.setString(2, description);
+                stmt.setString(3, dueDate);
+                stmt.setString(4, status);
+                stmt.setString(5, priority);
+                stmt.setInt(6, estimatedHours);
+                stmt.setInt(7, actualHours);
+                stmt.setInt(8, taskId);
+                
+                stmt.executeUpdate();
+                
+                System.out.println("✅ Task updated: " + title);
+            } finally {
+                dbManager.release(conn);
+            }
+        };
+    }
+    
     /**
      * Delete task from database
      */
     public void deleteTask(int taskId) {
+        if (taskId <= 0) return; // belum pernah tersimpan
+        
+        Connection conn = null;
         try {
-            Connection conn = dbManager.getConnection();
+            conn = dbManager.borrowWriter();
             
             String sql = "DELETE FROM tasks WHERE id = ?";
-            PreparedStatement stmt = conn.prepareStatement(sql);
+            PreparedStatement stmt = dbManager.prepare(conn, sql);
             stmt.setInt(1, taskId);
             
             stmt.executeUpdate();
-            stmt.close();
             
             System.out.println("✅ Task deleted (ID: " + taskId + ")");
             
         } catch (SQLException e) {
             System.err.println("❌ Failed to delete task!");
             e.printStackTrace();
+        } finally {
+            dbManager.release(conn);
         }
     }
     
@@ -121,46 +160,138 @@ public class TaskDAO {
      */
     public List<Task> loadAllTasks(int userId) {
         List<Task> tasks = new ArrayList<>();
+        List<Map.Entry<Task, Task>> dropped = List.of();
         
+        Connection conn = null;
         try {
-            Connection conn = dbManager.getConnection();
+            conn = dbManager.borrowReader();
             
             String sql = "SELECT * FROM tasks WHERE user_id = ? ORDER BY due_date ASC";
-            PreparedStatement stmt = conn.prepareStatement(sql);
+            PreparedStatement stmt = dbManager.prepare(conn, sql);
             stmt.setInt(1, userId);
             ResultSet rs = stmt.executeQuery();
             
+            // id database -> task, hanya untuk memasang dependency di bawah
+            Map<Integer, Task> tasksById = new HashMap<>();
             while (rs.next()) {
                 Task task = createTaskFromResultSet(rs);
                 if (task != null) {
                     tasks.add(task);
+                    tasksById.put(rs.getInt("id"), task);
                 }
             }
             
             rs.close();
-            stmt.close();
+            
+            dropped = attachDependencies(conn, userId, tasksById);
             
             System.out.println("✅ Loaded " + tasks.size() + " tasks");
             
         } catch (SQLException e) {
             System.err.println("❌ Failed to load tasks!");
             e.printStackTrace();
+        } finally {
+            dbManager.release(conn);
+        }
+        
+        // edge yang menutup cycle dihapus dari database, supaya tidak muncul lagi di load berikutnya
+        for (Map.Entry<Task, Task> edge : dropped) {
+            deleteDependency(edge.getKey().getId(), edge.getValue().getId());
         }
         
         return tasks;
     }
     
+    /**
+     * Load semua edge dependency user dalam satu query dan pasang ke task (linear)
+     * Mengembalikan edge yang dibuang karena menutup cycle
+     */
+    private List<Map.Entry<Task, Task>> attachDependencies(Connection conn, int userId, Map<Integer, Task> tasksById) throws SQLException {
+        String sql = """
+            SELECT d.task_id, d.depends_on_id
+            FROM task_dependencies d
+            JOIN tasks t ON t.id = d.task_id
+            WHERE t.user_id = ?
+        """;
+        
+        PreparedStatement stmt = dbManager.prepare(conn, sql);
+        stmt.setInt(1, userId);
+        ResultSet rs = stmt.executeQuery();
+        
+        List<Map.Entry<Task, Task>> edges = new ArrayList<>();
+        while (rs.next()) {
+            Task task = tasksById.get(rs.getInt("task_id"));
+            Task prerequisite = tasksById.get(rs.getInt("depends_on_id"));
+            if (task != null && prerequisite != null) {
+                edges.add(Map.entry(task, prerequisite));
+            }
+        }
+        
+        rs.close();
+        
+        if (edges.isEmpty()) return List.of();
+        
+        List<Map.Entry<Task, Task>> dropped = TaskDependencyGraph.attachAll(edges);
+        System.out.println("✅ Loaded " + (edges.size() - dropped.size()) + " task dependencies");
+        return dropped;
+    }
+    
+    /**
+     * Save dependency: taskId baru bisa dimulai setelah dependsOnId selesai
+     */
+    public void saveDependency(int taskId, int dependsOnId) {
+        Connection conn = null;
+        try {
+            conn = dbManager.borrowWriter();
+            
+            String sql = "INSERT OR IGNORE INTO task_dependencies (task_id, depends_on_id) VALUES (?, ?)";
+            PreparedStatement stmt = dbManager.prepare(conn, sql);
+            stmt.setInt(1, taskId);
+            stmt.setInt(2, dependsOnId);
+            stmt.executeUpdate();
+            
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to save task dependency!");
+            e.printStackTrace();
+        } finally {
+            dbManager.release(conn);
+        }
+    }
+    
+    /**
+     * Delete dependency
+     */
+    public void deleteDependency(int taskId, int dependsOnId) {
+        Connection conn = null;
+        try {
+            conn = dbManager.borrowWriter();
+            
+            String sql = "DELETE FROM task_dependencies WHERE task_id = ? AND depends_on_id = ?";
+            PreparedStatement stmt = dbManager.prepare(conn, sql);
+            stmt.setInt(1, taskId);
+            stmt.setInt(2, dependsOnId);
+            stmt.executeUpdate();
+            
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to delete task dependency!");
+            e.printStackTrace();
+        } finally {
+            dbManager.release(conn);
+        }
+    }
+    
     /**
      * Load tasks by status
      */
     public List<Task> loadTasksByStatus(int userId, TaskStatus status) {
         List<Task> tasks = new ArrayList<>();
         
+        Connection conn = null;
         try {
-            Connection conn = dbManager.getConnection();
+            conn = dbManager.borrowReader();
             
             String sql = "SELECT * FROM tasks WHERE user_id = ? AND status = ? ORDER BY due_date ASC";
-            PreparedStatement stmt = conn.prepareStatement(sql);
+            PreparedStatement stmt = dbManager.prepare(conn, sql);
             stmt.setInt(1, userId);
             stmt.setString(2, status.toString());
             ResultSet rs = stmt.executeQuery();
@@ -173,11 +304,12 @@ public class TaskDAO {
             }
             
             rs.close();
-            stmt.close();
             
         } catch (SQLException e) {
             System.err.println("❌ Failed to load tasks by status!");
             e.printStackTrace();
+        } finally {
+            dbManager.release(conn);
         }
         
         return tasks;
@@ -215,8 +347,8 @@ public class TaskDAO {
             task.setStatus(status);
             task.setActualHours(actualHours);
             
-            // Store database ID in task (you may need to add a field for this)
-            // For now, we'll use the task's internal ID counter
+            // Pakai primary key database sebagai id task
+            task.setId(id);
         }
         
         return task;
@@ -244,76 +376,71 @@ public class TaskDAO {
     
     /**
      * Get task completion statistics
+     * Reads the trigger-maintained task_stats row (one primary-key lookup, no table scan)
      */
     public Map<String, Integer> getTaskStatistics(int userId) {
         Map<String, Integer> stats = new HashMap<>();
+        stats.put("total", 0);
+        stats.put("todo", 0);
+        stats.put("in_progress", 0);
+        stats.put("completed", 0);
+        stats.put("overdue", 0);
         
+        Connection conn = null;
         try {
-            Connection conn = dbManager.getConnection();
-            
-            // Total tasks
-            String totalSql = "SELECT COUNT(*) as count FROM tasks WHERE user_id = ?";
-            PreparedStatement totalStmt = conn.prepareStatement(totalSql);
-            totalStmt.setInt(1, userId);
-            ResultSet totalRs = totalStmt.executeQuery();
-            stats.put("total", totalRs.getInt("count"));
-            totalRs.close();
-            totalStmt.close();
-            
-            // Completed tasks
-            String completedSql = "SELECT COUNT(*) as count FROM tasks WHERE user_id = ? AND status = 'COMPLETED'";
-            PreparedStatement completedStmt = conn.prepareStatement(completedSql);
-            completedStmt.setInt(1, userId);
-            ResultSet completedRs = completedStmt.executeQuery();
-            stats.put("completed", completedRs.getInt("count"));
-            completedRs.close();
-            completedStmt.close();
-            
-            // Overdue tasks
-            String overdueSql = "SELECT COUNT(*) as count FROM tasks WHERE user_id = ? AND status = 'OVERDUE'";
-            PreparedStatement overdueStmt = conn.prepareStatement(overdueSql);
-            overdueStmt.setInt(1, userId);
-            ResultSet overdueRs = overdueStmt.executeQuery();
-            stats.put("overdue", overdueRs.getInt("count"));
-            overdueRs.close();
-            overdueStmt.close();
-            
-            // In progress tasks
-            String inProgressSql = "SELECT COUNT(*) as count FROM tasks WHERE user_id = ? AND status = 'IN_PROGRESS'";
-            PreparedStatement inProgressStmt = conn.prepareStatement(inProgressSql);
-            inProgressStmt.setInt(1, userId);
-            ResultSet inProgressRs = inProgressStmt.executeQuery();
-            stats.put("in_progress", inProgressRs.getInt("count"));
-            inProgressRs.close();
-            inProgressStmt.close();
+            conn = dbManager.borrowReader();
+            
+            String sql = "SELECT total, todo, in_progress, completed, overdue FROM task_stats WHERE user_id = ?";
+            PreparedStatement stmt = dbManager.prepare(conn, sql);
+            stmt.setInt(1, userId);
+            ResultSet rs = stmt.executeQuery();
+            
+            if (rs.next()) {
+                stats.put("total", rs.getInt("total"));
+                stats.put("todo", rs.getInt("todo"));
+                stats.put("in_progress", rs.getInt("in_progress"));
+                stats.put("completed", rs.getInt("completed"));
+                stats.put("overdue", rs.getInt("overdue"));
+            }
+            
+            rs.close();
             
         } catch (SQLException e) {
             System.err.println("❌ Failed to get task statistics!");
             e.printStackTrace();
+        } finally {
+            dbManager.release(conn);
         }
         
         return stats;
     }
     
     /**
-     * Search tasks by title or description
+     * Search tasks by title, description or subject
+     * Uses the FTS5 index (prefix match, best matches first) instead of a LIKE table scan
      */
     public List<Task> searchTasks(int userId, String query) {
+        String ftsQuery = SearchResult.toPrefixQuery(query);
+        if (ftsQuery == null) {
+            return loadAllTasks(userId);
+        }
+        
         List<Task> tasks = new ArrayList<>();
         
+        Connection conn = null;
         try {
-            Connection conn = dbManager.getConnection();
+            conn = dbManager.borrowReader();
             
             String sql = """
-                SELECT * FROM tasks 
-                WHERE user_id = ? AND (title LIKE ? OR description LIKE ?)
-                ORDER BY due_date ASC
+                SELECT t.* FROM tasks_fts
+                JOIN tasks t ON t.id = tasks_fts.rowid
+                WHERE tasks_fts MATCH ? AND t.user_id = ?
+                ORDER BY bm25(tasks_fts, 10.0, 1.0, 3.0)
             """;
             
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, userId);
-            stmt.setString(2, "%" + query + "%");
-            stmt.setString(3, "%" + query + "%");
+            PreparedStatement stmt = dbManager.prepare(conn, sql);
+            stmt.setString(1, ftsQuery);
+            stmt.setInt(2, userId);
             ResultSet rs = stmt.executeQuery();
             
             while (rs.next()) {
@@ -324,13 +451,66 @@ public class TaskDAO {
             }
             
             rs.close();
-            stmt.close();
             
         } catch (SQLException e) {
             System.err.println("❌ Failed to search tasks!");
             e.printStackTrace();
+        } finally {
+            dbManager.release(conn);
         }
         
         return tasks;
     }
+    
+    /**
+     * Ranked full-text search returning only task ids, titles and highlighted snippets
+     * Cheap enough to run on every keystroke of the search box
+     */
+    public List<SearchResult> searchTaskIds(int userId, String query, int limit) {
+        List<SearchResult> results = new ArrayList<>();
+        String ftsQuery = SearchResult.toPrefixQuery(query);
+        if (ftsQuery == null) return results;
+        
+        Connection conn = null;
+        try {
+            conn = dbManager.borrowReader();
+            
+            // Title matches weigh more than subject, subject more than description
+            String sql = """
+                SELECT t.id, t.title,
+                       snippet(tasks_fts, -1, '[', ']', '…', 12) AS snippet,
+                       bm25(tasks_fts, 10.0, 1.0, 3.0) AS score
+                FROM tasks_fts
+                JOIN tasks t ON t.id = tasks_fts.rowid
+                WHERE tasks_fts MATCH ? AND t.user_id = ?
+                ORDER BY score
+                LIMIT ?
+            """;
+            
+            PreparedStatement stmt = dbManager.prepare(conn, sql);
+            stmt.setString(1, ftsQuery);
+            stmt.setInt(2, userId);
+            stmt.setInt(3, limit);
+            ResultSet rs = stmt.executeQuery();
+            
+            while (rs.next()) {
+                results.add(new SearchResult(
+                    rs.getInt("id"),
+                    rs.getString("title"),
+                    rs.getString("snippet"),
+                    rs.getDouble("score")
+                ));
+            }
+            
+            rs.close();
+            
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to search tasks!");
+            e.printStackTrace();
+        } finally {
+            dbManager.release(conn);
+        }
+        
+        return results;
+    }
 }
\ No newline at end of file
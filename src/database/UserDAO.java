@@ -20,12 +20,13 @@ public class UserDAO {
      * Returns user ID
      */
     public int saveUser(UserProfile user) {
+        Connection conn = null;
         try {
-            Connection conn = dbManager.getConnection();
+            conn = dbManager.borrowWriter();
             
             // Check if user exists
             String checkSql = "SELECT id FROM users WHERE username = ?";
-            PreparedStatement checkStmt = conn.prepareStatement(checkSql);
+            PreparedStatement checkStmt = dbManager.prepare(conn, checkSql);
             checkStmt.setString(1, user.getUsername());
             ResultSet rs = checkStmt.executeQuery();
             
@@ -34,31 +35,25 @@ public class UserDAO {
                 int userId = rs.getInt("id");
                 updateUser(userId, user);
                 rs.close();
-                checkStmt.close();
                 return userId;
             } else {
                 // Insert new user
                 rs.close();
-                checkStmt.close();
                 
                 String insertSql = """
                     INSERT INTO users (username, xp, level, streak, last_activity_date)
                     VALUES (?, ?, ?, ?, ?)
                 """;
                 
-                PreparedStatement stmt = conn.prepareStatement(insertSql, Statement.RETURN_GENERATED_KEYS);
+                PreparedStatement stmt = dbManager.prepare(conn, insertSql);
                 stmt.setString(1, user.getUsername());
                 stmt.setInt(2, user.getXP());
                 stmt.setInt(3, user.getLevel());
                 stmt.setInt(4, user.getStreak());
-                stmt.setString(5, LocalDate.now().toString());
+                stmt.setString(5, user.getLastActivityDate().toString());
                 
                 stmt.executeUpdate();
-                ResultSet generatedKeys = stmt.getGeneratedKeys();
-                int userId = generatedKeys.getInt(1);
-                
-                generatedKeys.close();
-                stmt.close();
+                int userId = dbManager.lastInsertId(conn);
                 
                 // Save achievements
                 saveAchievements(userId, user.getAchievements());
@@ -71,6 +66,8 @@ public class UserDAO {
             System.err.println("❌ Failed to save user!");
             e.printStackTrace();
             return -1;
+        } finally {
+            dbManager.release(conn);
         }
     }
     
@@ -79,44 +76,65 @@ public class UserDAO {
      */
     public void updateUser(int userId, UserProfile user) {
         try {
-            Connection conn = dbManager.getConnection();
-            
-            String sql = """
-                UPDATE users 
-                SET xp = ?, level = ?, streak = ?, last_activity_date = ?
-                WHERE id = ?
-            """;
-            
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, user.getXP());
-            stmt.setInt(2, user.getLevel());
-            stmt.setInt(3, user.getStreak());
-            stmt.setString(4, LocalDate.now().toString());
-            stmt.setInt(5, userId);
-            
-            stmt.executeUpdate();
-            stmt.close();
-            
-            // Update achievements
-            saveAchievements(userId, user.getAchievements());
-            
+            userUpdate(userId, user).run();
             System.out.println("✅ User updated: " + user.getUsername());
-            
         } catch (SQLException e) {
             System.err.println("❌ Failed to update user!");
             e.printStackTrace();
         }
     }
     
+    /**
+     * Write update user dengan nilai yang diambil sekarang (xp, level, streak, achievements)
+     */
+    SqlWrite userUpdate(int userId, UserProfile user) {
+        int xp = user.getXP();
+        int level = user.getLevel();
+        int streak = user.getStreak();
+        String lastActivity = user.getLastActivityDate().toString();
+        List<Achievement> achievements = new ArrayList<>();
+        for (Achievement achievement : user.getAchievements()) {
+            achievements.add(achievement.copy());
+        }
+        
+        return () -> {
+            Connection conn = null;
+            try {
+                conn = dbManager.borrowWriter();
+                
+                String sql = """
+                    UPDATE users 
+                    SET xp = ?, level = ?, streak = ?, last_activity_date = ?
+                    WHERE id = ?
+                """;
+                
+                PreparedStatement stmt = dbManager.prepare(conn, sql);
+                stmt.setInt(1, xp);
+                stmt.setInt(2, level);
+                stmt.setInt(3, streak);
+                stmt.setString(4, lastActivity);
+                stmt.setInt(5, userId);
+                
+                stmt.executeUpdate();
+                
+                // Update achievements
+                saveAchievements(userId, achievements);
+            } finally {
+                dbManager.release(conn);
+            }
+        };
+    }
+    
     /**
      * Load user from database
      */
     public UserProfile loadUser(String username) {
+        Connection conn = null;
         try {
-            Connection conn = dbManager.getConnection();
+            conn = dbManager.borrowReader();
             
             String sql = "SELECT * FROM users WHERE username = ?";
-            PreparedStatement stmt = conn.prepareStatement(sql);
+            PreparedStatement stmt = dbManager.prepare(conn, sql);
             stmt.setString(1, username);
             ResultSet rs = stmt.executeQuery();
             
@@ -126,18 +144,11 @@ public class UserDAO {
                 int level = rs.getInt("level");
                 int streak = rs.getInt("streak");
                 
-                UserProfile user = new UserProfile(username);
+                String lastActivity = rs.getString("last_activity_date");
                 
-                // Set private fields via reflection or use setter methods
-                // For now, we'll need to add XP to reach the correct level
-                while (user.getLevel() < level) {
-                    user.addXP(user.getLevel() * 100);
-                }
-                // Adjust XP to match
-                if (user.getXP() != xp) {
-                    int diff = xp - user.getXP();
-                    if (diff > 0) user.addXP(diff);
-                }
+                // Restore xp/level/streak directly (no replayed level-ups or observer events)
+                UserProfile user = new UserProfile(username);
+                user.restoreState(xp, level, streak, lastActivity != null ? LocalDate.parse(lastActivity) : null);
                 
                 // Load achievements
                 loadAchievements(userId, user);
@@ -146,36 +157,36 @@ public class UserDAO {
                 loadProductivityHistory(userId, user);
                 
                 rs.close();
-                stmt.close();
                 
                 System.out.println("✅ User loaded: " + username + " (Level " + level + ", " + xp + " XP)");
                 return user;
             }
             
             rs.close();
-            stmt.close();
             return null;
             
         } catch (SQLException e) {
             System.err.println("❌ Failed to load user!");
             e.printStackTrace();
             return null;
+        } finally {
+            dbManager.release(conn);
         }
     }
     
     /**
      * Save achievements to database
      */
-    private void saveAchievements(int userId, List<Achievement> achievements) {
+    private void saveAchievements(int userId, List<Achievement> achievements) throws SQLException {
+        Connection conn = null;
         try {
-            Connection conn = dbManager.getConnection();
+            conn = dbManager.borrowWriter();
             
             // Delete existing achievements
             String deleteSql = "DELETE FROM achievements WHERE user_id = ?";
-            PreparedStatement deleteStmt = conn.prepareStatement(deleteSql);
+            PreparedStatement deleteStmt = dbManager.prepare(conn, deleteSql);
             deleteStmt.setInt(1, userId);
             deleteStmt.executeUpdate();
-            deleteStmt.close();
             
             // Insert achievements
             String insertSql = """
@@ -183,7 +194,7 @@ public class UserDAO {
                 VALUES (?, ?, ?, ?, ?, ?)
             """;
             
-            PreparedStatement stmt = conn.prepareStatement(insertSql);
+            PreparedStatement stmt = dbManager.prepare(conn, insertSql);
             for (Achievement achievement : achievements) {
                 stmt.setInt(1, userId);
                 stmt.setString(2, achievement.getName());
@@ -196,11 +207,9 @@ public class UserDAO {
             }
             
             stmt.executeBatch();
-            stmt.close();
             
-        } catch (SQLException e) {
-            System.err.println("❌ Failed to save achievements!");
-            e.printStackTrace();
+        } finally {
+            dbManager.release(conn);
         }
     }
     
@@ -208,16 +217,16 @@ public class UserDAO {
      * Load achievements from database
      */
     private void loadAchievements(int userId, UserProfile user) {
+        Connection conn = null;
         try {
-            Connection conn = dbManager.getConnection();
+            conn = dbManager.borrowReader();
             
             String sql = "SELECT * FROM achievements WHERE user_id = ?";
-            PreparedStatement stmt = conn.prepareStatement(sql);
+            PreparedStatement stmt = dbManager.prepare(conn, sql);
             stmt.setInt(1, userId);
             ResultSet rs = stmt.executeQuery();
             
-            // Clear existing achievements
-            user.getAchievements().clear();
+            List<Achievement> loaded = new ArrayList<>();
             
             while (rs.next()) {
                 String name = rs.getString("name");
@@ -233,15 +242,19 @@ public class UserDAO {
                     achievement.unlock();
                 }
                 
-                user.getAchievements().add(achievement);
+                loaded.add(achievement);
             }
             
             rs.close();
-            stmt.close();
+            
+            // Cocokkan dengan achievement bawaan berdasarkan nama
+            user.restoreAchievements(loaded);
             
         } catch (SQLException e) {
             System.err.println("❌ Failed to load achievements!");
             e.printStackTrace();
+        } finally {
+            dbManager.release(conn);
         }
     }
     
@@ -250,36 +263,47 @@ public class UserDAO {
      */
     public void saveProductivity(int userId, LocalDate date, int minutes) {
         try {
-            Connection conn = dbManager.getConnection();
-            
-            String sql = """
-                INSERT OR REPLACE INTO productivity_history (user_id, date, minutes)
-                VALUES (?, ?, ?)
-            """;
-            
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, userId);
-            stmt.setString(2, date.toString());
-            stmt.setInt(3, minutes);
-            
-            stmt.executeUpdate();
-            stmt.close();
-            
+            productivityWrite(userId, date, minutes).run();
         } catch (SQLException e) {
             System.err.println("❌ Failed to save productivity!");
             e.printStackTrace();
         }
     }
     
+    SqlWrite productivityWrite(int userId, LocalDate date, int minutes) {
+        return () -> {
+            Connection conn = null;
+            try {
+                conn = dbManager.borrowWriter();
+                
+                String sql = """
+                    INSERT OR REPLACE INTO productivity_history (user_id, date, minutes)
+                    VALUES (?, ?, ?)
+                """;
+                
+                PreparedStatement stmt = dbManager.prepare(conn, sql);
+                stmt.setInt(1, userId);
+                stmt.setString(2, date.toString());
+                stmt.setInt(3, minutes);
+                
+                stmt.executeUpdate();
+            } finally {
+                dbManager.release(conn);
+            }
+        };
+    }
+    
     /**
      * Load productivity history
      */
     private void loadProductivityHistory(int userId, UserProfile user) {
+        Connection conn = null;
         try {
-            Connection conn = dbManager.getConnection();
+            conn = dbManager.borrowReader();
             
-            String sql = "SELECT * FROM productivity_history WHERE user_id = ? ORDER BY date DESC LIMIT 30";
-            PreparedStatement stmt = conn.prepareStatement(sql);
+            // Seluruh riwayat, urut naik supaya DailySeries cukup tumbuh ke belakang
+            String sql = "SELECT date, minutes FROM productivity_history WHERE user_id = ? ORDER BY date";
+            PreparedStatement stmt = dbManager.prepare(conn, sql);
             stmt.setInt(1, userId);
             ResultSet rs = stmt.executeQuery();
             
@@ -288,15 +312,16 @@ public class UserDAO {
                 int minutes = rs.getInt("minutes");
                 
                 // Add to user's productivity history
-                user.getProductivityHistory().put(date, minutes);
+                user.getProductivityHistory().set(date, minutes);
             }
             
             rs.close();
-            stmt.close();
             
         } catch (SQLException e) {
             System.err.println("❌ Failed to load productivity history!");
             e.printStackTrace();
+        } finally {
+            dbManager.release(conn);
         }
     }
     
@@ -304,15 +329,16 @@ public class UserDAO {
      * Save Pomodoro session
      */
     public void savePomodoroSession(int userId, PomodoroSession session) {
+        Connection conn = null;
         try {
-            Connection conn = dbManager.getConnection();
+            conn = dbManager.borrowWriter();
             
             String sql = """
                 INSERT INTO pomodoro_sessions (user_id, start_time, end_time, duration, task_name, completed)
                 VALUES (?, ?, ?, ?, ?, ?)
             """;
             
-            PreparedStatement stmt = conn.prepareStatement(sql);
+            PreparedStatement stmt = dbManager.prepare(conn, sql);
             stmt.setInt(1, userId);
             stmt.setString(2, session.getStartTime().toString());
             stmt.setString(3, session.getEndTime() != null ? session.getEndTime().toString() : null);
@@ -321,11 +347,12 @@ public class UserDAO {
             stmt.setInt(6, session.isCompleted() ? 1 : 0);
             
             stmt.executeUpdate();
-            stmt.close();
             
         } catch (SQLException e) {
             System.err.println("❌ Failed to save Pomodoro session!");
             e.printStackTrace();
+        } finally {
+            dbManager.release(conn);
         }
     }
     
@@ -333,17 +360,17 @@ public class UserDAO {
      * Get total Pomodoro sessions count
      */
     public int getTotalPomodoroSessions(int userId) {
+        Connection conn = null;
         try {
-            Connection conn = dbManager.getConnection();
+            conn = dbManager.borrowReader();
             
             String sql = "SELECT COUNT(*) as count FROM pomodoro_sessions WHERE user_id = ? AND completed = 1";
-            PreparedStatement stmt = conn.prepareStatement(sql);
+            PreparedStatement stmt = dbManager.prepare(conn, sql);
             stmt.setInt(1, userId);
             ResultSet rs = stmt.executeQuery();
             
             int count = rs.getInt("count");
             rs.close();
-            stmt.close();
             
             return count;
             
@@ -351,6 +378,8 @@ public class UserDAO {
             System.err.println("❌ Failed to get Pomodoro sessions count!");
             e.printStackTrace();
             return 0;
+        } finally {
+            dbManager.release(conn);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,276 @@
+package database;
+
+import model.*;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.*;
+
+/**
+ * WriteBehindService - Antrian penyimpanan asinkron untuk DAO
+ * Perubahan entity dikumpulkan selama jendela singkat, update berulang untuk
+ * entity yang sama digabung (coalesce), lalu ditulis dalam satu transaksi
+ * di background thread sehingga JavaFX thread tidak menunggu disk.
+ */
+public class WriteBehindService {
+    private static final long DEFAULT_FLUSH_DELAY_MS = 250;
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private final DatabaseManager dbManager;
+    private final UserDAO userDAO;
+    private final TaskDAO taskDAO;
+    private final FlashcardDAO flashcardDAO;
+    private final long flushDelayMs;
+    private final int capacity;
+
+    // key entity -> write terakhir; urutan mengikuti perubahan pertama
+    private final Map<String, SqlWrite> pending = new LinkedHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition hasWork = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    // Counters
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong flushed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong transactions = new AtomicLong();
+
+    public WriteBehindService(DatabaseManager dbManager, UserDAO userDAO, TaskDAO taskDAO, FlashcardDAO flashcardDAO) {
+        this(dbManager, userDAO, taskDAO, flashcardDAO, DEFAULT_FLUSH_DELAY_MS, DEFAULT_CAPACITY);
+    }
+
+    public WriteBehindService(DatabaseManager dbManager, UserDAO userDAO, TaskDAO taskDAO, FlashcardDAO flashcardDAO,
+                              long flushDelayMs, int capacity) {
+        this.dbManager = dbManager;
+        this.userDAO = userDAO;
+        this.taskDAO = taskDAO;
+        this.flashcardDAO = flashcardDAO;
+        this.flushDelayMs = flushDelayMs;
+        this.capacity = capacity;
+
+        this.flusher = new Thread(this::runFlusher, "write-behind-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Antrikan update user (xp, level, streak, achievements)
+     * Nilai profile diambil sekarang, bukan saat flush di background thread.
+     */
+    public void queueUserUpdate(int userId, UserProfile user) {
+        submit("user:" + userId, userDAO.userUpdate(userId, user));
+    }
+
+    /**
+     * Antrikan total menit belajar untuk satu tanggal (nilai terakhir yang menang)
+     */
+    public void queueProductivity(int userId, LocalDate date, int totalMinutes) {
+        submit("productivity:" + userId + ":" + date, userDAO.productivityWrite(userId, date, totalMinutes));
+    }
+
+    /**
+     * Antrikan update task
+     */
+    public void queueTaskUpdate(int taskId, Task task) {
+        submit("task:" + taskId, taskDAO.taskUpdate(taskId, task));
+    }
+
+    /**
+     * Antrikan update flashcard
+     */
+    public void queueFlashcardUpdate(int cardId, Flashcard card) {
+        submit("flashcard:" + cardId, flashcardDAO.flashcardUpdate(cardId, card));
+    }
+
+    /**
+     * Antrikan write dengan key entity. Write dengan key yang sama yang masih
+     * menunggu akan diganti (coalesced). Memblok jika antrian penuh.
+     */
+    void submit(String key, SqlWrite write) {
+        lock.lock();
+        try {
+            if (!running) {
+                // Sudah shutdown - tulis langsung agar data tidak hilang
+                writeBatch(List.of(write));
+                return;
+            }
+
+            queued.incrementAndGet();
+            if (pending.containsKey(key)) {
+                pending.put(key, write);
+                coalesced.incrementAndGet();
+                return;
+            }
+
+            while (pending.size() >= capacity && running) {
+                hasWork.signal(); // minta flush segera
+                notFull.awaitUninterruptibly();
+            }
+            pending.put(key, write);
+            hasWork.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Loop background thread: tunggu perubahan, tahan sebentar untuk coalescing, lalu flush
+     */
+    private void runFlusher() {
+        while (true) {
+            List<SqlWrite> batch;
+            lock.lock();
+            try {
+                while (pending.isEmpty() && running) {
+                    hasWork.awaitUninterruptibly();
+                }
+                if (!running) return;
+
+                // jendela coalescing (dipotong jika antrian sudah penuh)
+                long remaining = TimeUnit.MILLISECONDS.toNanos(flushDelayMs);
+                while (remaining > 0 && running && pending.size() < capacity) {
+                    try {
+                        remaining = hasWork.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        break;
+                    }
+                }
+                batch = drainPending();
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                writeBatch(batch);
+            } catch (RuntimeException e) {
+                // flusher harus tetap hidup, kalau tidak submit() akan menunggu selamanya saat antrian penuh
+                System.err.println("❌ Write-behind flusher error!");
+                e.printStackTrace();
+            }
+        }
+    }
+
+    // Harus dipanggil dengan lock dipegang
+    private List<SqlWrite> drainPending() {
+        List<SqlWrite> batch = new ArrayList<>(pending.values());
+        pending.clear();
+        notFull.signalAll();
+        return batch;
+    }
+
+    /**
+     * Tulis semua write dalam satu transaksi
+     * Setiap write dibungkus savepoint: write yang gagal di-rollback sendiri dan
+     * dihitung sebagai failed, write lain tetap di-commit. Jika transaksinya sendiri
+     * gagal, seluruh batch di-rollback sebelum autocommit dikembalikan.
+     */
+    private void writeBatch(List<SqlWrite> batch) {
+        if (batch.isEmpty()) return;
+
+        Connection conn = null;
+        int written = 0;
+        try {
+            conn = dbManager.borrowWriter();
+            conn.setAutoCommit(false);
+
+            // DAO meminjam writer yang sama (lease reentrant), jadi semuanya masuk transaksi ini
+            for (SqlWrite write : batch) {
+                Savepoint savepoint = conn.setSavepoint();
+                try {
+                    write.run();
+                    conn.releaseSavepoint(savepoint);
+                    written++;
+                } catch (SQLException | RuntimeException e) {
+                    System.err.println("❌ Queued write failed, skipped!");
+                    e.printStackTrace();
+                    conn.rollback(savepoint);
+                    conn.releaseSavepoint(savepoint);
+                }
+            }
+
+            conn.commit();
+            flushed.addAndGet(written);
+            failed.addAndGet(batch.size() - written);
+            transactions.incrementAndGet();
+
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("❌ Failed to flush " + batch.size() + " queued writes!");
+            e.printStackTrace();
+            failed.addAndGet(batch.size());
+            try {
+                if (conn != null) conn.rollback();
+            } catch (SQLException rollbackError) {
+                rollbackError.printStackTrace();
+            }
+        } finally {
+            try {
+                if (conn != null) conn.setAutoCommit(true);
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+            dbManager.release(conn);
+        }
+    }
+
+    /**
+     * Flush semua write yang menunggu di thread pemanggil
+     */
+    public void flush() {
+        List<SqlWrite> batch;
+        lock.lock();
+        try {
+            batch = drainPending();
+        } finally {
+            lock.unlock();
+        }
+        writeBatch(batch);
+    }
+
+    /**
+     * Hentikan background thread dan flush sisa antrian (dipanggil saat aplikasi ditutup)
+     */
+    public void shutdown() {
+        lock.lock();
+        try {
+            running = false;
+            hasWork.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            flusher.join(5_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        flush();
+        System.out.println("✅ Write-behind queue flushed (" + flushed.get() + " writes, "
+            + coalesced.get() + " coalesced)");
+    }
+
+    /**
+     * Counter antrian: queued, coalesced, flushed, failed, transactions, pending
+     */
+    public Map<String, Long> getStatistics() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("queued", queued.get());
+        stats.put("coalesced", coalesced.get());
+        stats.put("flushed", flushed.get());
+        stats.put("failed", failed.get());
+        stats.put("transactions", transactions.get());
+        lock.lock();
+        try {
+            stats.put("pending", (long) pending.size());
+        } finally {
+            lock.unlock();
+        }
+        return stats;
+    }
+}
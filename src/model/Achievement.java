@@ -17,26 +17,20 @@ public class Achievement {
         this.unlocked = unlocked;
     }
 
-    public boolean checkCondition(UserProfile profile) {
-        // Cek kondisi spesifik berdasarkan nama achievement
-        return switch (name) {
-            case "First Steps" -> {
-                yield false; // Akan di cek di MainController
-            }
-
-            case "Dedicated" -> profile.getStreak() >= 7;
-            case "Marathon Runner" -> profile.getLevel() >= 10;
-            case "Master" -> profile.getProductivityHistory().values().stream()
-                    .anyMatch(minutes -> minutes >= 600);
-            default -> false;
-        };
-    }
+    // Kondisi unlock ada di AchievementEngine, diindeks per event
 
     public void unlock() {
         this.unlocked = true;
         this.unlockedDate = LocalDateTime.now();
     }
 
+    // Salinan lepas (mis. untuk disimpan di thread lain sementara objek aslinya terus berubah)
+    public Achievement copy() {
+        Achievement copy = new Achievement(name, description, xpReward, unlocked);
+        copy.unlockedDate = unlockedDate;
+        return copy;
+    }
+
     public String getName() {
         return name;
     }
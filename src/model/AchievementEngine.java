@@ -0,0 +1,86 @@
+package model;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+// Rule engine achievement: setiap rule didaftarkan pada event yang mempengaruhinya,
+// jadi satu event hanya mengecek rule yang relevan (bukan semua achievement).
+// Unlock yang memberi XP dimasukkan ke antrian event XP, bukan memanggil addXP rekursif.
+class AchievementEngine {
+    // Definisi satu achievement beserta event pemicu dan kondisinya
+    static final class Rule {
+        final String name;
+        final String description;
+        final int xpReward;
+        final Predicate<UserProfile> condition;
+
+        Rule(String name, String description, int xpReward, Predicate<UserProfile> condition) {
+            this.name = name;
+            this.description = description;
+            this.xpReward = xpReward;
+            this.condition = condition;
+        }
+    }
+
+    private final List<Rule> rules = new ArrayList<>();
+    private final EnumMap<AchievementEvent, List<Rule>> rulesByEvent = new EnumMap<>(AchievementEvent.class);
+
+    AchievementEngine() {
+        for (AchievementEvent event : AchievementEvent.values()) {
+            rulesByEvent.put(event, new ArrayList<>());
+        }
+        
+        register(new Rule("First Steps", "Complete your first task", 50,
+            p -> p.getCompletedTaskCount() >= 1), AchievementEvent.TASK_COMPLETED);
+        register(new Rule("Dedicated", "Maintain a 7-day streak", 200,
+            p -> p.getStreak() >= 7), AchievementEvent.STREAK);
+        register(new Rule("Marathon Runner", "Complete a 10-hour study session", 300,
+            p -> p.getProductivityHistory().getMax() >= 600), AchievementEvent.STUDY_SESSION);
+        register(new Rule("Early Bird", "Start studying before 7 AM", 100,
+            UserProfile::hasStudiedEarly), AchievementEvent.TIME_OF_DAY);
+        register(new Rule("Night Owl", "Study past midnight", 100,
+            UserProfile::hasStudiedPastMidnight), AchievementEvent.TIME_OF_DAY);
+        register(new Rule("Perfectionist", "Complete 10 tasks on time", 250,
+            p -> p.getOnTimeTaskCount() >= 10), AchievementEvent.TASK_COMPLETED);
+        register(new Rule("Master", "Reach level 10", 500,
+            p -> p.getLevel() >= 10), AchievementEvent.XP);
+    }
+
+    void register(Rule rule, AchievementEvent... triggers) {
+        rules.add(rule);
+        for (AchievementEvent event : triggers) {
+            rulesByEvent.get(event).add(rule);
+        }
+    }
+
+    // Semua rule sesuai urutan pendaftaran (dipakai untuk membuat daftar achievement awal)
+    List<Rule> getRules() {
+        return Collections.unmodifiableList(rules);
+    }
+
+    // Proses event dan semua event XP lanjutan dari unlock, secara iteratif
+    // XP reward langsung ditambahkan lewat profile.grantXP tanpa notifikasi;
+    // pemanggil yang mengirim notifikasi untuk achievement yang dikembalikan.
+    List<Achievement> evaluate(UserProfile profile, AchievementEvent... events) {
+        List<Achievement> unlocked = new ArrayList<>();
+        EnumSet<AchievementEvent> pending = EnumSet.noneOf(AchievementEvent.class);
+        Collections.addAll(pending, events);
+        
+        while (!pending.isEmpty()) {
+            AchievementEvent event = pending.iterator().next();
+            pending.remove(event);
+            
+            for (Rule rule : rulesByEvent.get(event)) {
+                Achievement achievement = profile.getAchievement(rule.name);
+                if (achievement == null || achievement.isUnlocked() || !rule.condition.test(profile)) {
+                    continue;
+                }
+                achievement.unlock();
+                unlocked.add(achievement);
+                profile.grantXP(achievement.getXpReward());
+                pending.add(AchievementEvent.XP);
+            }
+        }
+        return unlocked;
+    }
+}
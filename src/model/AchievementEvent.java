@@ -0,0 +1,6 @@
+package model;
+
+// Jenis event yang bisa memicu pengecekan achievement
+public enum AchievementEvent {
+    XP, STREAK, TASK_COMPLETED, STUDY_SESSION, TIME_OF_DAY
+}
@@ -15,8 +15,8 @@ public class Assignment extends Task {
     
     @Override
     // tingkat/score urgensi tugas yang di-display di dashboard
-    public double calculateUrgencyScore() {
-        long hoursUntilDue = java.time.Duration.between(LocalDateTime.now(), dueDate).toHours();
+    public double calculateUrgencyScore(LocalDateTime now) {
+        long hoursUntilDue = java.time.Duration.between(now, dueDate).toHours();
         double timeScore = 100.0 / (hoursUntilDue + 1); //Semakin dekat ke deadline, semakin tinggi skornya
         double priorityScore = priority.ordinal() * 25.0; 
         double effortScore = estimatedHours * 5.0; // tugas lama lebih urgent
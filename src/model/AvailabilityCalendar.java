@@ -0,0 +1,208 @@
+package model;
+
+import java.time.*;
+import java.util.*;
+
+// Ketersediaan waktu belajar pengguna dalam slot 15 menit (96 slot per hari)
+// Satu hari disimpan sebagai dua long (slot 0-63 dan 64-95), bit 1 = bisa belajar.
+// Lapisan: template mingguan -> pengecualian per tanggal (mengganti template) -> blok sibuk (dikurangi).
+// Pencarian "N slot kosong berturut-turut" dilakukan dengan operasi bit per word, bukan per slot.
+public class AvailabilityCalendar {
+    public static final int SLOT_MINUTES = 15;
+    public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+
+    private final long[][] weekly = new long[7][2];                 // index = DayOfWeek.getValue() - 1
+    private final TreeMap<LocalDate, long[]> exceptions = new TreeMap<>();
+    private final TreeMap<LocalDate, long[]> busy = new TreeMap<>();
+
+    // Default sama dengan jam produktif lama: setiap hari 09:00 - 22:00
+    public AvailabilityCalendar() {
+        for (DayOfWeek day : DayOfWeek.values()) {
+            setWeeklyAvailability(day, LocalTime.of(9, 0), LocalTime.of(22, 0), true);
+        }
+    }
+
+    // Salinan independen (template, pengecualian dan blok sibuk), mis. untuk perhitungan di thread lain
+    public AvailabilityCalendar copy() {
+        AvailabilityCalendar copy = new AvailabilityCalendar();
+        for (int i = 0; i < weekly.length; i++) {
+            copy.weekly[i] = weekly[i].clone();
+        }
+        exceptions.forEach((date, slots) -> copy.exceptions.put(date, slots.clone()));
+        busy.forEach((date, slots) -> copy.busy.put(date, slots.clone()));
+        return copy;
+    }
+
+    // ==================== MASK HELPERS ====================
+
+    public static int slotOf(LocalTime time) {
+        return (time.getHour() * 60 + time.getMinute()) / SLOT_MINUTES;
+    }
+
+    // Mask untuk slot [fromSlot, toSlot)
+    public static long[] rangeMask(int fromSlot, int toSlot) {
+        long[] mask = new long[2];
+        fromSlot = Math.max(0, fromSlot);
+        toSlot = Math.min(SLOTS_PER_DAY, toSlot);
+        if (fromSlot >= toSlot) return mask;
+        mask[0] = wordRange(fromSlot, toSlot);
+        mask[1] = wordRange(fromSlot - 64, toSlot - 64);
+        return mask;
+    }
+
+    // Bit [from, to) dalam satu word 64-bit, rentang di luar 0..64 di-clamp
+    private static long wordRange(int from, int to) {
+        from = Math.max(0, from);
+        to = Math.min(64, to);
+        if (from >= to) return 0L;
+        long upper = to == 64 ? -1L : (1L << to) - 1;
+        return upper & (-1L << from);
+    }
+
+    // Mask slot yang disentuh rentang waktu [from, to); 'to' = null berarti sampai akhir hari
+    private static long[] timeMask(LocalTime from, LocalTime to) {
+        int toSlot = to == null || to.equals(LocalTime.MIDNIGHT) ? SLOTS_PER_DAY
+            : ((to.getHour() * 60 + to.getMinute() + SLOT_MINUTES - 1) / SLOT_MINUTES);
+        return rangeMask(slotOf(from), toSlot);
+    }
+
+    private static void apply(long[] target, long[] mask, boolean set) {
+        if (set) {
+            target[0] |= mask[0];
+            target[1] |= mask[1];
+        } else {
+            target[0] &= ~mask[0];
+            target[1] &= ~mask[1];
+        }
+    }
+
+    // ==================== EDIT ====================
+
+    public void setWeeklyAvailability(DayOfWeek day, LocalTime from, LocalTime to, boolean available) {
+        apply(weekly[day.getValue() - 1], timeMask(from, to), available);
+    }
+
+    // Ubah ketersediaan satu tanggal; tanggal itu berhenti mengikuti template mingguan
+    public void setDateAvailability(LocalDate date, LocalTime from, LocalTime to, boolean available) {
+        long[] slots = exceptions.computeIfAbsent(date, d -> weekly[d.getDayOfWeek().getValue() - 1].clone());
+        apply(slots, timeMask(from, to), available);
+    }
+
+    public void clearDateException(LocalDate date) {
+        exceptions.remove(date);
+    }
+
+    // Tandai komitmen yang sudah ada (bisa melewati tengah malam)
+    public void addBusy(LocalDateTime start, LocalDateTime end) {
+        LocalDate date = start.toLocalDate();
+        while (start.isBefore(end)) {
+            LocalDateTime dayEnd = date.plusDays(1).atStartOfDay();
+            LocalTime to = end.isBefore(dayEnd) ? end.toLocalTime() : null;
+            apply(busy.computeIfAbsent(date, d -> new long[2]), timeMask(start.toLocalTime(), to), true);
+            start = dayEnd;
+            date = date.plusDays(1);
+        }
+    }
+
+    public void clearBusy(LocalDate date) {
+        busy.remove(date);
+    }
+
+    // ==================== QUERY ====================
+
+    // Slot bebas pada tanggal tertentu (salinan, aman diubah pemanggil)
+    public long[] getFreeSlots(LocalDate date) {
+        long[] base = exceptions.get(date);
+        if (base == null) base = weekly[date.getDayOfWeek().getValue() - 1];
+        long[] free = base.clone();
+        long[] blocked = busy.get(date);
+        if (blocked != null) {
+            free[0] &= ~blocked[0];
+            free[1] &= ~blocked[1];
+        }
+        return free;
+    }
+
+    public boolean isAvailable(LocalDateTime time) {
+        return isSet(getFreeSlots(time.toLocalDate()), slotOf(time.toLocalTime()));
+    }
+
+    public int countFreeSlots(LocalDate date) {
+        long[] free = getFreeSlots(date);
+        return Long.bitCount(free[0]) + Long.bitCount(free[1]);
+    }
+
+    // Slot pertama >= fromSlot yang memulai 'length' slot bebas berturut-turut, -1 jika tidak ada
+    public int findFreeRun(LocalDate date, int fromSlot, int length) {
+        return findRun(getFreeSlots(date), fromSlot, length);
+    }
+
+    // Versi statis untuk mask yang sudah diambil (dipakai scheduler)
+    public static int findRun(long[] mask, int fromSlot, int length) {
+        // run lebih panjang dari satu hari tidak mungkin muat (dan shift >= 64 tidak bergeser di Java)
+        if (length <= 0 || length > SLOTS_PER_DAY || fromSlot >= SLOTS_PER_DAY) return -1;
+        long lo = mask[0];
+        long hi = mask[1];
+        // setelah loop, bit i = 1 jika slot i .. i+length-1 semuanya bebas
+        int covered = 1;
+        while (covered < length) {
+            int shift = Math.min(covered, length - covered);
+            long newLo = lo & ((lo >>> shift) | (hi << (64 - shift)));
+            hi &= hi >>> shift;
+            lo = newLo;
+            covered += shift;
+        }
+        long[] from = rangeMask(fromSlot, SLOTS_PER_DAY);
+        lo &= from[0];
+        hi &= from[1];
+        if (lo != 0) return Long.numberOfTrailingZeros(lo);
+        if (hi != 0) return 64 + Long.numberOfTrailingZeros(hi);
+        return -1;
+    }
+
+    // Panjang run bebas yang dimulai tepat di 'slot'
+    public static int runLength(long[] mask, int slot) {
+        int length = 0;
+        while (slot < SLOTS_PER_DAY) {
+            int word = slot >>> 6;
+            long bits = ~(mask[word] >>> (slot & 63));
+            int free = Long.numberOfTrailingZeros(bits); // 64 jika sisa word bebas semua
+            int available = 64 - (slot & 63);
+            if (free < available) return length + free;
+            length += available;
+            slot += available;
+        }
+        return Math.min(length, SLOTS_PER_DAY);
+    }
+
+    public static boolean isSet(long[] mask, int slot) {
+        return (mask[slot >>> 6] & (1L << (slot & 63))) != 0;
+    }
+
+    // ==================== PERSISTENCE ACCESS ====================
+
+    public long[] getWeeklySlots(DayOfWeek day) {
+        return weekly[day.getValue() - 1].clone();
+    }
+
+    public void setWeeklySlots(DayOfWeek day, long lo, long hi) {
+        weekly[day.getValue() - 1][0] = lo;
+        weekly[day.getValue() - 1][1] = hi & wordRange(0, SLOTS_PER_DAY - 64);
+    }
+
+    public Map<LocalDate, long[]> getDateExceptions() {
+        return Collections.unmodifiableMap(exceptions);
+    }
+
+    public void setDateSlots(LocalDate date, long lo, long hi) {
+        exceptions.put(date, new long[] {lo, hi & wordRange(0, SLOTS_PER_DAY - 64)});
+    }
+
+    public Map<LocalDate, long[]> getBusySlots() {
+        return Collections.unmodifiableMap(busy);
+    }
+
+    public void setBusySlots(LocalDate date, long lo, long hi) {
+        busy.put(date, new long[] {lo, hi & wordRange(0, SLOTS_PER_DAY - 64)});
+    }
+}
@@ -0,0 +1,134 @@
+package model;
+
+import java.time.LocalDate;
+import java.util.*;
+
+// Deret nilai harian (menit belajar per tanggal) yang disimpan sebagai array int primitif
+// Index array = epoch day - baseDay, dan array tumbuh per CHUNK_DAYS hari.
+// Prefix sum disimpan berdampingan, jadi total rentang tanggal, jendela 7/30 hari dan
+// total keseluruhan dihitung O(1). Update hari terakhir (kasus normal: hari ini) juga O(1);
+// update tanggal lama menggeser prefix sum setelahnya.
+public final class DailySeries {
+    private static final int CHUNK_DAYS = 64;
+
+    private long baseDay;   // epoch day untuk index 0
+    private int length;     // jumlah hari yang terisi (index terakhir + 1)
+    private int[] values;
+    private long[] prefix;  // prefix[i] = jumlah values[0..i-1], panjang length + 1
+    private int max;        // nilai harian terbesar (dipakai achievement)
+
+    public DailySeries() {
+        values = new int[0];
+        prefix = new long[1];
+    }
+
+    // Tambahkan nilai ke tanggal tertentu
+    public void add(LocalDate date, int amount) {
+        int index = ensureIndex(date.toEpochDay());
+        set(index, values[index] + amount);
+    }
+
+    // Ganti nilai pada tanggal tertentu (dipakai saat load dari database)
+    public void set(LocalDate date, int value) {
+        set(ensureIndex(date.toEpochDay()), value);
+    }
+
+    public int get(LocalDate date) {
+        long index = date.toEpochDay() - baseDay;
+        if (length == 0 || index < 0 || index >= length) return 0;
+        return values[(int) index];
+    }
+
+    // Total dari 'from' sampai 'to' (inklusif)
+    public long sumBetween(LocalDate from, LocalDate to) {
+        if (length == 0 || to.isBefore(from)) return 0;
+        return prefixAt(to.toEpochDay() - baseDay + 1) - prefixAt(from.toEpochDay() - baseDay);
+    }
+
+    // Total jendela 'days' hari yang berakhir di 'end' (inklusif), mis. 7 atau 30 hari terakhir
+    public long sumLastDays(LocalDate end, int days) {
+        if (days <= 0) return 0;
+        return sumBetween(end.minusDays(days - 1), end);
+    }
+
+    public long total() {
+        return prefix[length];
+    }
+
+    public int getMax() {
+        return max;
+    }
+
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    // Tanggal pertama yang tercakup, null jika kosong
+    public LocalDate getFirstDate() {
+        return length == 0 ? null : LocalDate.ofEpochDay(baseDay);
+    }
+
+    // Prefix sum dengan index yang di-clamp ke rentang yang tersimpan
+    private long prefixAt(long index) {
+        if (index <= 0) return 0;
+        if (index >= length) return prefix[length];
+        return prefix[(int) index];
+    }
+
+    private void set(int index, int value) {
+        int old = values[index];
+        values[index] = value;
+        int delta = value - old;
+        if (delta != 0) {
+            for (int i = index + 1; i <= length; i++) {
+                prefix[i] += delta;
+            }
+        }
+        if (value > max) {
+            max = value;
+        } else if (old == max && value < old) {
+            max = 0;
+            for (int i = 0; i < length; i++) {
+                max = Math.max(max, values[i]);
+            }
+        }
+    }
+
+    // Pastikan epoch day tercakup array, lalu kembalikan index-nya
+    private int ensureIndex(long epochDay) {
+        if (length == 0) {
+            baseDay = epochDay;
+            grow(0, 1);
+            return 0;
+        }
+        if (epochDay < baseDay) {
+            // tanggal sebelum awal deret: geser isi ke kanan (jarang, load selalu urut naik)
+            int shift = Math.toIntExact(baseDay - epochDay);
+            grow(shift, length + shift);
+            baseDay = epochDay;
+            return 0;
+        }
+        int index = Math.toIntExact(epochDay - baseDay);
+        if (index >= length) {
+            grow(0, index + 1);
+        }
+        return index;
+    }
+
+    // Perbesar deret menjadi newLength hari, dengan 'shift' hari kosong di depan
+    private void grow(int shift, int newLength) {
+        if (shift > 0 || newLength > values.length) {
+            int capacity = Math.max(values.length, ((newLength + CHUNK_DAYS - 1) / CHUNK_DAYS) * CHUNK_DAYS);
+            int[] newValues = new int[capacity];
+            long[] newPrefix = new long[capacity + 1];
+            System.arraycopy(values, 0, newValues, shift, length);
+            System.arraycopy(prefix, 0, newPrefix, shift, length + 1);
+            values = newValues;
+            prefix = newPrefix;
+        }
+        // hari baru bernilai 0, jadi prefix-nya sama dengan total sebelumnya
+        long total = prefix[shift + length];
+        Arrays.fill(prefix, shift + length + 1, newLength + 1, total);
+        length = newLength;
+    }
+}
@@ -11,23 +11,48 @@ public class Deck {
     private LocalDateTime createdDate;
     private String category;
     
+    // id sementara negatif sampai DAO mengisi primary key database
     private static int idCounter = 0;
     
+    private IntHashMap<Flashcard> cardsById; // id kartu -> kartu
+    DeckManager owner; // manager yang berisi deck ini (null jika belum ditambahkan)
+    
     public Deck(String name, String description) {
-        this.id = ++idCounter;
+        this.id = -(++idCounter);
         this.name = name;
         this.description = description;
         this.cards = new ArrayList<>();
+        this.cardsById = new IntHashMap<>();
         this.createdDate = LocalDateTime.now();
         this.category = "General";
     }
     
     public void addCard(Flashcard card) {
         cards.add(card);
+        card.owner = this;
+        cardsById.put(card.getId(), card);
     }
     
     public void removeCard(Flashcard card) {
-        cards.remove(card);
+        if (cards.remove(card)) {
+            if (cardsById.get(card.getId()) == card) {
+                cardsById.remove(card.getId());
+            }
+            card.owner = null;
+        }
+    }
+    
+    // Cari kartu berdasarkan id, null jika tidak ada di deck ini
+    public Flashcard getCardById(int cardId) {
+        return cardsById.get(cardId);
+    }
+    
+    // Dipanggil Flashcard.setId
+    void cardIdChanged(Flashcard card, int oldId) {
+        if (cardsById.get(oldId) == card) {
+            cardsById.remove(oldId);
+        }
+        cardsById.put(card.getId(), card);
     }
     
     public List<Flashcard> getCardsDueForReview() {
@@ -68,6 +93,13 @@ public class Deck {
     public int getId() { 
         return id; 
     }
+    
+    // Dipanggil DAO setelah insert/load agar id sama dengan primary key di database
+    public void setId(int id) {
+        int oldId = this.id;
+        this.id = id;
+        if (owner != null) owner.deckIdChanged(this, oldId);
+    }
 
     public String getName() { 
         return name; 
@@ -4,17 +4,48 @@ import java.util.*;
 
 public class DeckManager {
     private List<Deck> decks;
+    private IntHashMap<Deck> decksById; // id deck -> deck, lookup O(1) tanpa boxing
     
     public DeckManager() {
         this.decks = new ArrayList<>();
+        this.decksById = new IntHashMap<>();
     }
     
     public void addDeck(Deck deck) {
         decks.add(deck);
+        deck.owner = this;
+        decksById.put(deck.getId(), deck);
     }
     
     public void removeDeck(Deck deck) {
-        decks.remove(deck);
+        if (decks.remove(deck)) {
+            if (decksById.get(deck.getId()) == deck) {
+                decksById.remove(deck.getId());
+            }
+            deck.owner = null;
+        }
+    }
+    
+    // Cari deck berdasarkan id, null jika tidak ada
+    public Deck getDeckById(int deckId) {
+        return decksById.get(deckId);
+    }
+    
+    // Cari kartu berdasarkan id di semua deck (satu lookup hash per deck)
+    public Flashcard findCardById(int cardId) {
+        for (Deck deck : decks) {
+            Flashcard card = deck.getCardById(cardId);
+            if (card != null) return card;
+        }
+        return null;
+    }
+    
+    // Dipanggil Deck.setId
+    void deckIdChanged(Deck deck, int oldId) {
+        if (decksById.get(oldId) == deck) {
+            decksById.remove(oldId);
+        }
+        decksById.put(deck.getId(), deck);
     }
     
     public List<Deck> getAllDecks() {
@@ -0,0 +1,67 @@
+package model;
+
+import java.time.LocalDateTime;
+
+// Ringkasan deck (metadata + jumlah kartu) tanpa memuat isi kartunya
+// dipakai untuk grid deck yang hanya menampilkan statistik
+public class DeckSummary {
+    private int id;
+    private String name;
+    private String description;
+    private String category;
+    private LocalDateTime createdDate;
+    private int totalCards;
+    private int dueCards;
+    private int masteredCards;
+    private double averageMastery;
+
+    public DeckSummary(int id, String name, String description, String category, LocalDateTime createdDate,
+                       int totalCards, int dueCards, int masteredCards, double averageMastery) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.category = category;
+        this.createdDate = createdDate;
+        this.totalCards = totalCards;
+        this.dueCards = dueCards;
+        this.masteredCards = masteredCards;
+        this.averageMastery = averageMastery;
+    }
+
+    // Getters
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public LocalDateTime getCreatedDate() {
+        return createdDate;
+    }
+
+    public int getTotalCards() {
+        return totalCards;
+    }
+
+    public int getDueCards() {
+        return dueCards;
+    }
+
+    public int getMasteredCards() {
+        return masteredCards;
+    }
+
+    public double getAverageMastery() {
+        return averageMastery;
+    }
+}
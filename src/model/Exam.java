@@ -16,8 +16,8 @@ public class Exam extends Task {
     
     @Override
     // tingkat/score urgensi ujian yang di-display di dashboard
-    public double calculateUrgencyScore() {
-        long hoursUntilDue = java.time.Duration.between(LocalDateTime.now(), dueDate).toHours();
+    public double calculateUrgencyScore(LocalDateTime now) {
+        long hoursUntilDue = java.time.Duration.between(now, dueDate).toHours();
         double timeScore = 150.0 / (hoursUntilDue + 1); // multipliernya lebih tinggi untuk score ujian
         double preparednessScore = (1.0 - (double)studyHoursCompleted / estimatedHours) * 50.0;
         
@@ -28,6 +28,7 @@ public class Exam extends Task {
     public void addStudyHours(int hours) {
         studyHoursCompleted += hours;
         actualHours += hours;
+        urgencyInputsChanged();
     }
     
     public double getPreparednessPercentage() {
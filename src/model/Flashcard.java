@@ -16,10 +16,13 @@ public class Flashcard {
     private int totalReviews;
     private int correctCount;
     
+    // id sementara negatif sampai DAO mengisi primary key database
     private static int idCounter = 0;
     
+    Deck owner; // deck yang berisi kartu ini (null jika belum ditambahkan)
+    
     public Flashcard(String question, String answer) {
-        this.id = ++idCounter;
+        this.id = -(++idCounter);
         this.question = question;
         this.answer = answer;
         // this.hint = "";
@@ -37,6 +40,23 @@ public class Flashcard {
         // this.hint = hint;
     }
     
+    // factory untuk memulihkan kartu dari database: state SM-2 di-set langsung,
+    // tanpa memutar ulang riwayat review
+    public static Flashcard restore(String question, String answer, int easeFactor, int repetitions,
+                                    int interval, LocalDateTime nextReview, LocalDateTime createdDate,
+                                    LocalDateTime lastReviewed, int totalReviews, int correctCount) {
+        Flashcard card = new Flashcard(question, answer);
+        card.easeFactor = easeFactor;
+        card.repetitions = repetitions;
+        card.interval = interval;
+        card.nextReview = nextReview;
+        card.createdDate = createdDate;
+        card.lastReviewed = lastReviewed;
+        card.totalReviews = totalReviews;
+        card.correctCount = correctCount;
+        return card;
+    }
+    
     public void recordReview(int quality) {
         totalReviews++;
         
@@ -87,6 +107,13 @@ public class Flashcard {
     public int getId() { 
         return id; 
     }
+    
+    // Dipanggil DAO setelah insert/load agar id sama dengan primary key di database
+    public void setId(int id) {
+        int oldId = this.id;
+        this.id = id;
+        if (owner != null) owner.cardIdChanged(this, oldId);
+    }
     public String getQuestion() { 
         return question; 
     }
@@ -105,6 +132,9 @@ public class Flashcard {
     // public void setHint(String hint) { 
     //     this.hint = hint; 
     // }
+    public int getEaseFactor() { 
+        return easeFactor; 
+    }
     public int getRepetitions() { 
         return repetitions; 
     }
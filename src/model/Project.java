@@ -15,8 +15,8 @@ public class Project extends Task {
     
     @Override
     // tingkat/score urgensi project yang di-display di dashboard
-    public double calculateUrgencyScore() {
-        long hoursUntilDue = java.time.Duration.between(LocalDateTime.now(), dueDate).toHours();
+    public double calculateUrgencyScore(LocalDateTime now) {
+        long hoursUntilDue = java.time.Duration.between(now, dueDate).toHours();
         double timeScore = 80.0 / (hoursUntilDue + 1);
         double completionScore = (1.0 - getCompletionPercentage() / 100.0) * 40.0;
         double priorityScore = priority.ordinal() * 20.0;
@@ -27,6 +27,7 @@ public class Project extends Task {
     // methods untuk mengelola subtasks
     public void addSubtask(Task task) {
         subtasks.add(task);
+        urgencyInputsChanged();
     }
 
     // menghitung persentase penyelesaian project berdasarkan subtasks
@@ -7,6 +7,11 @@ public class StudyStatistics {
     private UserProfile profile;
     private TaskManager taskManager;
     
+    // hasil perhitungan tugas selesai, dihitung ulang hanya jika versi snapshot berubah
+    private long cachedVersion = -1;
+    private int cachedOnTimeCount;
+    private double cachedAverageCompletionTime;
+    
     // constructor
     public StudyStatistics(UserProfile profile, TaskManager taskManager) {  
         this.profile = profile;
@@ -15,25 +20,39 @@ public class StudyStatistics {
     
     // total tugas yang diselesaikan
     public int getCompletedTasksCount() {
-        return taskManager.getTasksByStatus(TaskStatus.COMPLETED).size();
+        return taskManager.countByStatus(TaskStatus.COMPLETED);
     }
     
     // tugas yang diselesaikan tepat waktu
-    public int getOnTimeCompletionCount() {
-        return (int) taskManager.getTasksByStatus(TaskStatus.COMPLETED).stream()
-            .filter(t -> t.getActualHours() <= t.getEstimatedHours())
-            .count();
+    public synchronized int getOnTimeCompletionCount() {
+        refreshCompletedStats();
+        return cachedOnTimeCount;
     }
     
     // rata-rata waktu penyelesaian tugas
-    public double getAverageTaskCompletionTime() {
-        List<Task> completed = taskManager.getTasksByStatus(TaskStatus.COMPLETED);
-        if (completed.isEmpty()) return 0.0;
+    public synchronized double getAverageTaskCompletionTime() {
+        refreshCompletedStats();
+        return cachedAverageCompletionTime;
+    }
+    
+    // satu pass atas tugas selesai untuk kedua statistik di atas
+    private void refreshCompletedStats() {
+        TaskSnapshot snapshot = taskManager.getSnapshot();
+        if (snapshot.getVersion() == cachedVersion) return;
+        
+        int completed = 0;
+        int onTime = 0;
+        long totalHours = 0;
+        for (Task task : snapshot.getTasks()) {
+            if (task.getStatus() != TaskStatus.COMPLETED) continue;
+            completed++;
+            totalHours += task.getActualHours();
+            if (task.getActualHours() <= task.getEstimatedHours()) onTime++;
+        }
         
-        return completed.stream()
-            .mapToInt(Task::getActualHours)
-            .average()
-            .orElse(0.0);
+        cachedOnTimeCount = onTime;
+        cachedAverageCompletionTime = completed == 0 ? 0.0 : (double) totalHours / completed;
+        cachedVersion = snapshot.getVersion();
     }
     
     // distribusi tugas berdasarkan prioritas
@@ -41,7 +60,7 @@ public class StudyStatistics {
         Map<TaskPriority, Integer> distribution = new HashMap<>();
         
         // inisialisasi peta dengan prioritas
-        for (Task task : taskManager.getAllTasks()) {
+        for (Task task : taskManager.getSnapshot().getTasks()) {
             distribution.merge(task.getPriority(), 1, Integer::sum);
         }
         
@@ -50,8 +69,6 @@ public class StudyStatistics {
     
     // total jam produktif minggu ini
     public int getProductiveHoursThisWeek() {
-        return profile.getLastWeekProductivity().values().stream()
-            .mapToInt(Integer::intValue)
-            .sum() / 60;
+        return profile.getStudyMinutesLastDays(7) / 60;
     }
 }
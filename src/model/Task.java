@@ -6,6 +6,7 @@ import java.util.*;
 // Abstract base class untuk semua jenis tugas
 public abstract class Task {
     // idCounter untuk generate unique IDs : setiap tugas punya identifier beda
+    // id sementara selalu negatif; id positif = primary key database yang di-set oleh DAO
     private static int idCounter = 0;
     
     // menggunakan protected agar variabel bisa diakses oleh subclass
@@ -21,8 +22,10 @@ public abstract class Task {
     protected List<String> tags; // label/kategori untuk tugas
     protected List<Task> dependencies; // tugas yang harus diselesaikan sebelum tugas lain bisa dimulai
     
+    volatile TaskManager owner; // manager yang mengindeks tugas ini (null jika belum ditambahkan)
+    
     public Task(String title, String description, LocalDateTime dueDate, int estimatedHours, TaskPriority priority) {
-        this.id = ++idCounter;
+        this.id = -(++idCounter);
         this.title = title;
         this.description = description;
         this.dueDate = dueDate;
@@ -36,21 +39,49 @@ public abstract class Task {
     }
     
     // Abstract method - beda jenis tugas meng-kategorikan score urgency nya
-    public abstract double calculateUrgencyScore();
+    // dihitung terhadap waktu "now" yang diberikan agar satu ranking memakai waktu yang sama
+    public abstract double calculateUrgencyScore(LocalDateTime now);
+    
+    public double calculateUrgencyScore() {
+        return calculateUrgencyScore(LocalDateTime.now());
+    }
     
     // Common methods untuk semua tugas: 
     // method untuk menandai as complete
     public void markComplete() {
-        this.status = TaskStatus.COMPLETED;
+        changeIndexed(() -> this.status = TaskStatus.COMPLETED);
     }
     
     // method untuk menambahkan tag, Nb: depedencies tdk diimplementasi di UI
+    // IllegalArgumentException jika dependency membentuk cycle
     public void addDependency(Task task) {
-        dependencies.add(task);
+        TaskManager manager = owner;
+        if (manager != null) {
+            manager.addDependency(this, task);
+            return;
+        }
+        if (TaskDependencyGraph.wouldCreateCycle(this, task)) {
+            throw new IllegalArgumentException("Dependency '" + title + "' -> '" + task.title + "' would create a cycle");
+        }
+        if (!dependencies.contains(task)) {
+            dependencies.add(task);
+        }
+    }
+    
+    public void removeDependency(Task task) {
+        TaskManager manager = owner;
+        if (manager != null) {
+            manager.removeDependency(this, task);
+        } else {
+            dependencies.remove(task);
+        }
     }
     
     // method untuk mengecek apakah tugas bisa dimulai (semua dependencies sudah complete)
+    // jika dikelola TaskManager, pakai jumlah prerequisite terbuka yang di-cache graph
     public boolean canStart() {
+        TaskManager manager = owner;
+        if (manager != null) return manager.getDependencyGraph().canStart(this);
         return dependencies.stream().allMatch(t -> t.status == TaskStatus.COMPLETED);
     }
     
@@ -58,17 +89,55 @@ public abstract class Task {
     public void updateStatus() {
         if (status == TaskStatus.COMPLETED) return;
         
+        TaskStatus newStatus = status;
         if (LocalDateTime.now().isAfter(dueDate)) {
-            status = TaskStatus.OVERDUE; // kelewatan deadline
+            newStatus = TaskStatus.OVERDUE; // kelewatan deadline
         } else if (actualHours > 0) {
-            status = TaskStatus.IN_PROGRESS; // sedang dikerjakan
+            newStatus = TaskStatus.IN_PROGRESS; // sedang dikerjakan
+        }
+        
+        if (newStatus != status) {
+            TaskStatus updated = newStatus;
+            changeIndexed(() -> status = updated);
         }
     }
     
+    // hook untuk index TaskManager: perubahan status, dueDate atau estimatedHours
+    // dijalankan di bawah lock manager supaya index tidak pernah terlihat setengah jadi
+    private void changeIndexed(Runnable change) {
+        TaskManager manager = owner;
+        if (manager != null) {
+            manager.applyIndexedChange(this, change);
+        } else {
+            change.run();
+        }
+    }
+    
+    // hook untuk ranking urgensi: field lain yang ikut menentukan skor berubah
+    void urgencyInputsChanged() {
+        TaskManager manager = owner;
+        if (manager != null) manager.inputsChanged(this);
+    }
+    
     // Getters and setters
     public int getId() { 
         return id; 
     }
+    
+    // Dipanggil DAO setelah insert/load agar id sama dengan primary key di database
+    public void setId(int id) {
+        TaskManager manager = owner;
+        if (manager != null) {
+            manager.applyIdChange(this, id);
+        } else {
+            this.id = id;
+        }
+    }
+    
+    // true jika tugas sudah tersimpan di database
+    public boolean isPersisted() {
+        return id > 0;
+    }
 
     public String getTitle() { 
         return title; 
@@ -91,7 +160,7 @@ public abstract class Task {
     }
 
     public void setDueDate(LocalDateTime dueDate) { 
-        this.dueDate = dueDate; 
+        changeIndexed(() -> this.dueDate = dueDate);
     }
 
     public LocalDateTime getCreatedDate() { 
@@ -103,7 +172,7 @@ public abstract class Task {
     }
 
     public void setStatus(TaskStatus status) { 
-        this.status = status; 
+        changeIndexed(() -> this.status = status);
     }
 
     public TaskPriority getPriority() { 
@@ -112,6 +181,7 @@ public abstract class Task {
 
     public void setPriority(TaskPriority priority) { 
         this.priority = priority; 
+        urgencyInputsChanged();
     }
 
     public int getEstimatedHours() { 
@@ -119,7 +189,7 @@ public abstract class Task {
     }
 
     public void setEstimatedHours(int hours) { 
-        this.estimatedHours = hours; 
+        changeIndexed(() -> this.estimatedHours = hours);
     }
 
     public int getActualHours() { 
@@ -128,6 +198,7 @@ public abstract class Task {
 
     public void setActualHours(int hours) { 
         this.actualHours = hours; 
+        urgencyInputsChanged();
     }
 
     public List<String> getTags() { 
@@ -135,6 +206,6 @@ public abstract class Task {
     }
 
     public List<Task> getDependencies() { 
-        return dependencies; 
+        return Collections.unmodifiableList(dependencies); 
     }
 }
\ No newline at end of file
@@ -0,0 +1,85 @@
+package model;
+
+import java.util.*;
+
+// Kumpulan perubahan tugas yang dikirim ke observer dalam satu event
+// Tugas yang ditambah lalu dihapus dalam batch yang sama tidak muncul sama sekali,
+// dan tugas baru yang diubah hanya muncul di "added".
+public final class TaskChangeBatch {
+    private final List<Task> added;
+    private final List<Task> removed;
+    private final List<Task> updated;
+    private final long version; // versi snapshot setelah batch diterapkan
+
+    TaskChangeBatch(List<Task> added, List<Task> removed, List<Task> updated, long version) {
+        this.added = added;
+        this.removed = removed;
+        this.updated = updated;
+        this.version = version;
+    }
+
+    public List<Task> getAdded() {
+        return added;
+    }
+
+    public List<Task> getRemoved() {
+        return removed;
+    }
+
+    public List<Task> getUpdated() {
+        return updated;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty() && updated.isEmpty();
+    }
+
+    public int size() {
+        return added.size() + removed.size() + updated.size();
+    }
+
+    // Pengumpul perubahan selama batch berjalan (dipakai TaskManager dengan lock dipegang)
+    static class Builder {
+        private final Set<Task> added = new LinkedHashSet<>();
+        private final Set<Task> removed = new LinkedHashSet<>();
+        private final Set<Task> updated = new LinkedHashSet<>();
+
+        void added(Task task) {
+            if (!removed.remove(task)) {
+                added.add(task);
+            } else {
+                updated.add(task); // dihapus lalu ditambah lagi = berubah
+            }
+        }
+
+        void removed(Task task) {
+            updated.remove(task);
+            if (!added.remove(task)) {
+                removed.add(task);
+            }
+        }
+
+        void updated(Task task) {
+            if (!added.contains(task) && !removed.contains(task)) {
+                updated.add(task);
+            }
+        }
+
+        boolean isEmpty() {
+            return added.isEmpty() && removed.isEmpty() && updated.isEmpty();
+        }
+
+        TaskChangeBatch build(long version) {
+            TaskChangeBatch batch = new TaskChangeBatch(List.copyOf(added), List.copyOf(removed),
+                List.copyOf(updated), version);
+            added.clear();
+            removed.clear();
+            updated.clear();
+            return batch;
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package model;
+
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+
+// Graph dependency antar tugas, dijaga oleh TaskManager
+// Edge "task -> prerequisite" berarti task baru bisa dimulai setelah prerequisite selesai.
+// Jumlah prerequisite yang belum selesai disimpan per tugas, jadi canStart() O(1)
+// dan saat satu tugas selesai hanya dependents-nya yang diperbarui.
+// Method package-private dipanggil TaskManager dengan lock sudah dipegang;
+// method public mengambil lock yang sama.
+public class TaskDependencyGraph {
+    private final Lock lock;
+    private final Map<Task, Set<Task>> prerequisites = new HashMap<>(); // adjacency
+    private final Map<Task, Set<Task>> dependents = new HashMap<>(); // reverse adjacency
+    private final Map<Task, Integer> openPrerequisites = new HashMap<>(); // cache flag "startable"
+    // status selesai yang terakhir dipakai untuk menghitung openPrerequisites
+    private final Map<Task, Boolean> knownCompleted = new HashMap<>();
+
+    TaskDependencyGraph(Lock lock) {
+        this.lock = lock;
+    }
+
+    // Daftarkan tugas beserta dependency yang sudah dimilikinya (dipanggil saat addTask)
+    void addTask(Task task) {
+        statusChanged(task);
+        for (Task prerequisite : task.dependencies) {
+            addEdge(task, prerequisite);
+        }
+    }
+
+    // Hapus tugas dari graph; dependents tidak lagi menunggu tugas ini
+    void removeTask(Task task) {
+        for (Task prerequisite : new ArrayList<>(prerequisites.getOrDefault(task, Set.of()))) {
+            removeEdge(task, prerequisite);
+        }
+        for (Task dependent : new ArrayList<>(dependents.getOrDefault(task, Set.of()))) {
+            removeEdge(dependent, task);
+            dependent.dependencies.remove(task);
+        }
+        prerequisites.remove(task);
+        dependents.remove(task);
+        openPrerequisites.remove(task);
+        knownCompleted.remove(task);
+    }
+
+    // Tambah dependency; IllegalArgumentException jika membentuk cycle
+    // true jika edge baru ditambahkan
+    boolean addDependency(Task task, Task prerequisite) {
+        if (wouldCreateCycle(task, prerequisite)) {
+            throw new IllegalArgumentException("Dependency '" + task.getTitle() + "' -> '"
+                + prerequisite.getTitle() + "' would create a cycle");
+        }
+        if (!addEdge(task, prerequisite)) return false;
+        task.dependencies.add(prerequisite);
+        return true;
+    }
+
+    // true jika edge memang ada dan dihapus
+    boolean removeDependency(Task task, Task prerequisite) {
+        if (!removeEdge(task, prerequisite)) return false;
+        task.dependencies.remove(prerequisite);
+        return true;
+    }
+
+    private boolean addEdge(Task task, Task prerequisite) {
+        if (!prerequisites.computeIfAbsent(task, t -> new HashSet<>()).add(prerequisite)) {
+            return false;
+        }
+        dependents.computeIfAbsent(prerequisite, t -> new HashSet<>()).add(task);
+        if (!isKnownCompleted(prerequisite)) {
+            openPrerequisites.merge(task, 1, Integer::sum);
+        }
+        return true;
+    }
+
+    private boolean removeEdge(Task task, Task prerequisite) {
+        Set<Task> prereqs = prerequisites.get(task);
+        if (prereqs == null || !prereqs.remove(prerequisite)) {
+            return false;
+        }
+        Set<Task> deps = dependents.get(prerequisite);
+        if (deps != null) {
+            deps.remove(task);
+        }
+        if (!isKnownCompleted(prerequisite)) {
+            openPrerequisites.merge(task, -1, Integer::sum);
+        }
+        return true;
+    }
+
+    // Dipanggil TaskManager setelah status tugas berubah: hanya dependents yang diperbarui
+    void statusChanged(Task task) {
+        boolean nowCompleted = task.status == TaskStatus.COMPLETED;
+        Boolean previous = knownCompleted.put(task, nowCompleted);
+        if (previous == null || previous == nowCompleted) return;
+
+        int delta = nowCompleted ? -1 : 1;
+        for (Task dependent : dependents.getOrDefault(task, Set.of())) {
+            openPrerequisites.merge(dependent, delta, Integer::sum);
+        }
+    }
+
+    private boolean isKnownCompleted(Task task) {
+        return knownCompleted.computeIfAbsent(task, t -> t.status == TaskStatus.COMPLETED);
+    }
+
+    // true jika semua prerequisite sudah selesai
+    public boolean canStart(Task task) {
+        lock.lock();
+        try {
+            return openPrerequisites.getOrDefault(task, 0) <= 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // cek apakah prerequisite (secara transitif) sudah bergantung pada task
+    public static boolean wouldCreateCycle(Task task, Task prerequisite) {
+        if (task == prerequisite) return true;
+
+        // list dependencies milik Task selalu sama dengan adjacency di graph
+        Deque<Task> stack = new ArrayDeque<>();
+        Set<Task> visited = new HashSet<>();
+        stack.push(prerequisite);
+        while (!stack.isEmpty()) {
+            Task current = stack.pop();
+            if (current == task) return true;
+            if (!visited.add(current)) continue;
+            for (Task next : current.dependencies) {
+                stack.push(next);
+            }
+        }
+        return false;
+    }
+
+    // Semua prerequisite yang belum selesai, termasuk yang tidak langsung
+    public Set<Task> getBlockers(Task task) {
+        lock.lock();
+        try {
+            Set<Task> blockers = new LinkedHashSet<>();
+            Deque<Task> queue = new ArrayDeque<>(prerequisitesOf(task));
+            Set<Task> visited = new HashSet<>();
+            while (!queue.isEmpty()) {
+                Task current = queue.poll();
+                if (!visited.add(current)) continue;
+                if (current.status != TaskStatus.COMPLETED) {
+                    blockers.add(current);
+                }
+                queue.addAll(prerequisitesOf(current));
+            }
+            return blockers;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Set<Task> getDependents(Task task) {
+        lock.lock();
+        try {
+            return new HashSet<>(dependents.getOrDefault(task, Set.of()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Urutan topologis (Kahn): setiap prerequisite muncul sebelum tugas yang bergantung padanya
+    public List<Task> topologicalOrder(Collection<Task> tasks) {
+        lock.lock();
+        try {
+            return kahn(tasks);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<Task> kahn(Collection<Task> tasks) {
+        Map<Task, Integer> inDegree = new LinkedHashMap<>();
+        for (Task task : tasks) {
+            inDegree.put(task, 0);
+        }
+        for (Task task : tasks) {
+            int count = 0;
+            for (Task prerequisite : prerequisitesOf(task)) {
+                if (inDegree.containsKey(prerequisite)) count++;
+            }
+            inDegree.put(task, count);
+        }
+
+        Deque<Task> ready = new ArrayDeque<>();
+        inDegree.forEach((task, degree) -> {
+            if (degree == 0) ready.add(task);
+        });
+
+        List<Task> order = new ArrayList<>(tasks.size());
+        while (!ready.isEmpty()) {
+            Task task = ready.poll();
+            order.add(task);
+            for (Task dependent : dependents.getOrDefault(task, Set.of())) {
+                Integer degree = inDegree.get(dependent);
+                if (degree == null) continue;
+                inDegree.put(dependent, degree - 1);
+                if (degree == 1) ready.add(dependent);
+            }
+        }
+        return order;
+    }
+
+    public int getEdgeCount() {
+        lock.lock();
+        try {
+            int count = 0;
+            for (Set<Task> prereqs : prerequisites.values()) {
+                count += prereqs.size();
+            }
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Collection<Task> prerequisitesOf(Task task) {
+        Set<Task> prereqs = prerequisites.get(task);
+        // tugas yang belum ada di manager: pakai list milik task sendiri
+        return prereqs != null ? prereqs : task.dependencies;
+    }
+
+    // Pasang banyak edge sekaligus (mis. hasil load dari database) dalam waktu linear.
+    // Edge dipasang tanpa cek cycle per edge, lalu satu DFS membuang back edge
+    // (edge yang menutup cycle) sehingga hasilnya pasti acyclic.
+    // Mengembalikan edge yang dibuang (task -> prerequisite) agar pemanggil bisa menghapusnya dari storage.
+    public static List<Map.Entry<Task, Task>> attachAll(Collection<Map.Entry<Task, Task>> edges) {
+        List<Map.Entry<Task, Task>> dropped = new ArrayList<>();
+        Map<Task, Set<Task>> existing = new HashMap<>();
+        for (Map.Entry<Task, Task> edge : edges) {
+            Task task = edge.getKey();
+            Set<Task> current = existing.computeIfAbsent(task, t -> new HashSet<>(t.dependencies));
+            if (current.add(edge.getValue())) {
+                task.dependencies.add(edge.getValue());
+            }
+        }
+
+        // DFS iteratif: IN_PROGRESS = sedang di stack, DONE = selesai dikunjungi
+        final int IN_PROGRESS = 1, DONE = 2;
+        Map<Task, Integer> state = new HashMap<>();
+        Deque<Task> stack = new ArrayDeque<>();
+        Deque<Integer> nextIndex = new ArrayDeque<>();
+        for (Task root : existing.keySet()) {
+            if (state.containsKey(root)) continue;
+            state.put(root, IN_PROGRESS);
+            stack.push(root);
+            nextIndex.push(0);
+
+            while (!stack.isEmpty()) {
+                Task task = stack.peek();
+                int index = nextIndex.pop();
+                if (index >= task.dependencies.size()) {
+                    state.put(task, DONE);
+                    stack.pop();
+                    continue;
+                }
+
+                Task prerequisite = task.dependencies.get(index);
+                Integer prerequisiteState = state.get(prerequisite);
+                if (prerequisiteState == null) {
+                    nextIndex.push(index + 1);
+                    state.put(prerequisite, IN_PROGRESS);
+                    stack.push(prerequisite);
+                    nextIndex.push(0);
+                } else if (prerequisiteState == IN_PROGRESS) {
+                    // back edge: menutup cycle, jadi dibuang (index tetap karena list bergeser)
+                    task.dependencies.remove(index);
+                    nextIndex.push(index);
+                    dropped.add(Map.entry(task, prerequisite));
+                    System.err.println("⚠️ Dropped cyclic dependency: " + task.getTitle()
+                        + " -> " + prerequisite.getTitle());
+                } else {
+                    nextIndex.push(index + 1);
+                }
+            }
+        }
+        return dropped;
+    }
+}
@@ -1,79 +1,431 @@
 package model;
 
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
+// Aman dipakai dari beberapa thread: semua perubahan dan index dijaga satu lock,
+// sedangkan reader daftar tugas cukup membaca snapshot immutable tanpa lock.
 public class TaskManager {
-    private List<Task> tasks;
+    final ReentrantLock lock = new ReentrantLock(); // juga dipakai UrgencyRanking dan TaskDependencyGraph
+
+    private Set<Task> tasks; // urutan sesuai waktu ditambahkan
     private List<TaskObserver> observers; // observer untuk perubahan tugas
-    
+
+    // Index sekunder, dijaga oleh index()/unindex() setiap kali field yang diindeks berubah
+    private Map<TaskStatus, Set<Task>> byStatus;
+    private NavigableMap<LocalDateTime, Set<Task>> byDueDate; // semua tugas
+    private NavigableMap<LocalDateTime, Set<Task>> openByDueDate; // hanya tugas yang belum selesai
+    private int openEstimatedHours; // total estimasi jam tugas yang belum selesai
+    private UrgencyRanking urgencyRanking;
+    private TaskDependencyGraph dependencyGraph;
+    private IntHashMap<Task> byId; // id -> task, lookup O(1) tanpa boxing
+
+    // Snapshot dibuat ulang secara lazy oleh reader pertama setelah ada perubahan
+    private long version = 0;
+    private volatile TaskSnapshot snapshot = TaskSnapshot.EMPTY;
+
+    // Perubahan yang belum dikirim ke observer; selama batchDepth > 0 event ditahan
+    private final TaskChangeBatch.Builder pendingChanges = new TaskChangeBatch.Builder();
+    private int batchDepth = 0;
+
     public TaskManager() {
-        this.tasks = new ArrayList<>();
-        this.observers = new ArrayList<>();
+        this.tasks = new LinkedHashSet<>();
+        this.observers = new CopyOnWriteArrayList<>();
+        this.byStatus = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : TaskStatus.values()) {
+            byStatus.put(status, new LinkedHashSet<>());
+        }
+        this.byDueDate = new TreeMap<>();
+        this.openByDueDate = new TreeMap<>();
+        this.urgencyRanking = new UrgencyRanking(this);
+        this.dependencyGraph = new TaskDependencyGraph(lock);
+        this.byId = new IntHashMap<>();
     }
-    
+
     // Operasi CRUD (Create, Read, Update, Delete) untuk tugas
     public void addTask(Task task) {
-        tasks.add(task);
-        notifyObservers();
+        TaskChangeBatch batch;
+        lock.lock();
+        try {
+            if (tasks.add(task)) {
+                task.owner = this;
+                byId.put(task.id, task);
+                dependencyGraph.addTask(task);
+                index(task);
+                pendingChanges.added(task);
+                changed();
+            }
+            batch = takeBatchIfDone();
+        } finally {
+            lock.unlock();
+        }
+        notifyObservers(batch);
+    }
+
+    // Tambah banyak tugas sekaligus; observer hanya menerima satu event
+    public void addAll(Collection<? extends Task> newTasks) {
+        beginBatch();
+        try {
+            for (Task task : newTasks) {
+                addTask(task);
+            }
+        } finally {
+            commitBatch();
+        }
     }
-    
+
     public void removeTask(Task task) {
-        tasks.remove(task);
-        notifyObservers();
+        TaskChangeBatch batch;
+        lock.lock();
+        try {
+            if (tasks.remove(task)) {
+                unindex(task);
+                if (byId.get(task.id) == task) {
+                    byId.remove(task.id);
+                }
+                dependencyGraph.removeTask(task);
+                task.owner = null;
+                pendingChanges.removed(task);
+                changed();
+            }
+            batch = takeBatchIfDone();
+        } finally {
+            lock.unlock();
+        }
+        notifyObservers(batch);
     }
-    
+
     public void updateTask(Task task) {
-        task.updateStatus();
-        notifyObservers();
+        TaskChangeBatch batch;
+        lock.lock();
+        try {
+            urgencyRanking.invalidate(task); // field non-index (priority, progress) mungkin berubah
+            task.updateStatus(); // index ikut diperbarui lewat hook di Task
+            if (task.owner == this) {
+                pendingChanges.updated(task);
+            }
+            changed();
+            batch = takeBatchIfDone();
+        } finally {
+            lock.unlock();
+        }
+        notifyObservers(batch);
     }
-    
+
+    // Mulai batch: perubahan dari thread ini dikumpulkan dan thread lain menunggu sampai commitBatch.
+    // Selalu pasangkan dengan commitBatch di blok finally. Batch boleh bersarang.
+    public void beginBatch() {
+        lock.lock();
+        batchDepth++;
+    }
+
+    // Selesaikan batch dan kirim semua perubahannya sebagai satu TaskChangeBatch
+    public void commitBatch() {
+        TaskChangeBatch batch;
+        if (!lock.isHeldByCurrentThread() || batchDepth == 0) {
+            throw new IllegalStateException("commitBatch() without beginBatch() on this thread");
+        }
+        try {
+            batchDepth--;
+            batch = takeBatchIfDone();
+        } finally {
+            lock.unlock();
+        }
+        notifyObservers(batch);
+    }
+
+    // Ambil perubahan yang menunggu jika tidak sedang di dalam batch (lock dipegang)
+    private TaskChangeBatch takeBatchIfDone() {
+        if (batchDepth > 0 || pendingChanges.isEmpty()) return null;
+        return pendingChanges.build(version);
+    }
+
+    // Untuk perubahan lewat setter Task: kirim langsung, kecuali dipanggil dari dalam
+    // operasi manager lain (mis. updateTask -> updateStatus) yang akan mengirimnya sendiri
+    private TaskChangeBatch takeBatchIfOutermost() {
+        return lock.getHoldCount() == 1 ? takeBatchIfDone() : null;
+    }
+
+    // Dipanggil Task untuk mengubah status, dueDate atau estimatedHours secara atomik
+    void applyIndexedChange(Task task, Runnable change) {
+        TaskChangeBatch batch;
+        lock.lock();
+        try {
+            if (task.owner != this) {
+                change.run(); // tugas sudah dihapus dari manager ini
+                return;
+            }
+            unindex(task);
+            change.run();
+            index(task);
+            pendingChanges.updated(task);
+            changed();
+            batch = takeBatchIfOutermost();
+        } finally {
+            lock.unlock();
+        }
+        notifyObservers(batch);
+    }
+
+    // Dipanggil Task.setId: pindahkan entry di index id
+    void applyIdChange(Task task, int newId) {
+        lock.lock();
+        try {
+            if (task.owner == this && byId.get(task.id) == task) {
+                byId.remove(task.id);
+            }
+            task.id = newId;
+            if (task.owner == this) {
+                byId.put(newId, task);
+                changed();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Dipanggil Task jika field lain yang ikut menentukan skor urgensi berubah
+    void inputsChanged(Task task) {
+        TaskChangeBatch batch;
+        lock.lock();
+        try {
+            urgencyRanking.invalidate(task);
+            pendingChanges.updated(task);
+            changed();
+            batch = takeBatchIfOutermost();
+        } finally {
+            lock.unlock();
+        }
+        notifyObservers(batch);
+    }
+
+    void addDependency(Task task, Task prerequisite) {
+        TaskChangeBatch batch;
+        boolean edgeChanged;
+        lock.lock();
+        try {
+            edgeChanged = dependencyGraph.addDependency(task, prerequisite);
+            pendingChanges.updated(task);
+            changed();
+            batch = takeBatchIfOutermost();
+        } finally {
+            lock.unlock();
+        }
+        if (edgeChanged) {
+            for (TaskObserver observer : observers) {
+                observer.onDependencyAdded(task, prerequisite);
+            }
+        }
+        notifyObservers(batch);
+    }
+
+    void removeDependency(Task task, Task prerequisite) {
+        TaskChangeBatch batch;
+        boolean edgeChanged;
+        lock.lock();
+        try {
+            edgeChanged = dependencyGraph.removeDependency(task, prerequisite);
+            pendingChanges.updated(task);
+            changed();
+            batch = takeBatchIfOutermost();
+        } finally {
+            lock.unlock();
+        }
+        if (edgeChanged) {
+            for (TaskObserver observer : observers) {
+                observer.onDependencyRemoved(task, prerequisite);
+            }
+        }
+        notifyObservers(batch);
+    }
+
+    // Harus dipanggil dengan lock dipegang
+    private void unindex(Task task) {
+        urgencyRanking.invalidate(task);
+        byStatus.get(task.status).remove(task);
+        removeFromDateIndex(byDueDate, task);
+        if (task.status != TaskStatus.COMPLETED) {
+            removeFromDateIndex(openByDueDate, task);
+            openEstimatedHours -= task.estimatedHours;
+        }
+    }
+
+    // Harus dipanggil dengan lock dipegang
+    private void index(Task task) {
+        urgencyRanking.invalidate(task);
+        dependencyGraph.statusChanged(task); // hanya dependents yang diperbarui
+        byStatus.get(task.status).add(task);
+        addToDateIndex(byDueDate, task);
+        if (task.status != TaskStatus.COMPLETED) {
+            addToDateIndex(openByDueDate, task);
+            openEstimatedHours += task.estimatedHours;
+        }
+    }
+
+    // Naikkan versi dan buang snapshot lama (lock dipegang)
+    private void changed() {
+        version++;
+        snapshot = null;
+    }
+
+    private static void addToDateIndex(NavigableMap<LocalDateTime, Set<Task>> index, Task task) {
+        if (task.dueDate == null) return;
+        index.computeIfAbsent(task.dueDate, d -> new LinkedHashSet<>()).add(task);
+    }
+
+    private static void removeFromDateIndex(NavigableMap<LocalDateTime, Set<Task>> index, Task task) {
+        if (task.dueDate == null) return;
+        Set<Task> sameDate = index.get(task.dueDate);
+        if (sameDate != null && sameDate.remove(task) && sameDate.isEmpty()) {
+            index.remove(task.dueDate);
+        }
+    }
+
+    private static List<Task> flatten(Collection<Set<Task>> buckets) {
+        List<Task> result = new ArrayList<>();
+        for (Set<Task> bucket : buckets) {
+            result.addAll(bucket);
+        }
+        return result;
+    }
+
+    // Snapshot immutable daftar tugas saat ini (tanpa copy jika tidak ada perubahan sejak snapshot terakhir)
+    public TaskSnapshot getSnapshot() {
+        TaskSnapshot current = snapshot;
+        if (current != null) return current;
+
+        lock.lock();
+        try {
+            if (snapshot == null) {
+                int[] statusCounts = new int[TaskStatus.values().length];
+                for (Map.Entry<TaskStatus, Set<Task>> entry : byStatus.entrySet()) {
+                    statusCounts[entry.getKey().ordinal()] = entry.getValue().size();
+                }
+                snapshot = new TaskSnapshot(version, List.copyOf(tasks), statusCounts, openEstimatedHours);
+            }
+            return snapshot;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getVersion() {
+        return getSnapshot().getVersion();
+    }
+
     // Metode untuk mendapatkan daftar tugas dengan berbagai filter dan sorting
+    // (list dari snapshot, tidak bisa diubah)
     public List<Task> getAllTasks() {
-        return new ArrayList<>(tasks);
+        return getSnapshot().getTasks();
     }
-    
+
+    public int getTaskCount() {
+        return getSnapshot().size();
+    }
+
+    // Cari tugas berdasarkan id (id database jika sudah tersimpan), null jika tidak ada
+    public Task getTaskById(int id) {
+        lock.lock();
+        try {
+            return byId.get(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
     // Mendapatkan tugas berdasarkan status
     public List<Task> getTasksByStatus(TaskStatus status) {
-        return tasks.stream()
-            .filter(t -> t.status == status)
-            .toList();
+        lock.lock();
+        try {
+            return new ArrayList<>(byStatus.get(status));
+        } finally {
+            lock.unlock();
+        }
     }
-    
+
+    // Jumlah tugas dengan status tertentu tanpa membuat list baru
+    public int countByStatus(TaskStatus status) {
+        return getSnapshot().countByStatus(status);
+    }
+
     // Mendapatkan tugas yang akan datang dalam beberapa hari ke depan
     public List<Task> getUpcomingTasks(int days) {
         LocalDateTime future = LocalDateTime.now().plusDays(days);
-        return tasks.stream() 
-            .filter(t -> t.status != TaskStatus.COMPLETED) // hanya tugas yang belum selesai
-            .filter(t -> t.dueDate.isBefore(future)) // due dalam rentang waktu tertentu
-            .sorted((a, b) -> a.dueDate.compareTo(b.dueDate)) // sort by due date
-            .toList(); // return sebagai list
-    }
-    
-    // Mendapatkan tugas yang diurutkan berdasarkan skor urgensi
+        lock.lock();
+        try {
+            // hanya tugas yang belum selesai, due sebelum batas waktu, sudah terurut by due date
+            return flatten(openByDueDate.headMap(future, false).values());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Mendapatkan semua tugas dengan due date di rentang [from, to), terurut by due date
+    public List<Task> getTasksDueBetween(LocalDateTime from, LocalDateTime to) {
+        lock.lock();
+        try {
+            return flatten(byDueDate.subMap(from, true, to, false).values());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Jumlah tugas per tanggal due di rentang [from, to]
+    public Map<LocalDate, Integer> countTasksPerDay(LocalDate from, LocalDate to) {
+        Map<LocalDate, Integer> counts = new TreeMap<>();
+        lock.lock();
+        try {
+            for (Map.Entry<LocalDateTime, Set<Task>> entry :
+                    byDueDate.subMap(from.atStartOfDay(), true, to.plusDays(1).atStartOfDay(), false).entrySet()) {
+                counts.merge(entry.getKey().toLocalDate(), entry.getValue().size(), Integer::sum);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return counts;
+    }
+
+    // Mendapatkan tugas yang diurutkan berdasarkan skor urgensi (dari ranking yang di-cache)
     public List<Task> getTasksSortedByUrgency() {
-        return tasks.stream()
-            .filter(t -> t.status != TaskStatus.COMPLETED) 
-            .sorted((a, b) -> Double.compare(b.calculateUrgencyScore(), a.calculateUrgencyScore()))
-            .toList();
+        return urgencyRanking.getRanked();
+    }
+
+    public UrgencyRanking getUrgencyRanking() {
+        return urgencyRanking;
+    }
+
+    public TaskDependencyGraph getDependencyGraph() {
+        return dependencyGraph;
     }
-    
+
+    // Semua tugas diurutkan sehingga prerequisite selalu lebih dulu
+    public List<Task> getTasksInDependencyOrder() {
+        return dependencyGraph.topologicalOrder(getAllTasks());
+    }
+
     // total estimasi jam untuk semua tugas yang belum selesai
     public int getTotalEstimatedHours() {
-        return tasks.stream()
-            .filter(t -> t.status != TaskStatus.COMPLETED)
-            .mapToInt(Task::getEstimatedHours)
-            .sum();
+        return getSnapshot().getTotalEstimatedHours();
     }
-    
-    
+
+
     public void addObserver(TaskObserver observer) {
         observers.add(observer);
     }
-    
+
+    public void removeObserver(TaskObserver observer) {
+        observers.remove(observer);
+    }
+
     // notify semua observer ketika ada perubahan pada daftar tugas
-    private void notifyObservers() {
-        observers.forEach(TaskObserver::onTasksChanged);
+    // (dipanggil di luar lock, di thread yang melakukan perubahan)
+    private void notifyObservers(TaskChangeBatch batch) {
+        if (batch == null) return;
+        for (TaskObserver observer : observers) {
+            observer.onTasksChanged(batch);
+        }
     }
 }
-
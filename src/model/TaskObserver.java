@@ -3,4 +3,17 @@ package model;
 // Observer interface for task changes
 public interface TaskObserver {
     void onTasksChanged();
-}
\ No newline at end of file
+
+    // Observer yang sadar delta bisa override ini untuk mengupdate hanya tugas yang berubah
+    default void onTasksChanged(TaskChangeBatch batch) {
+        onTasksChanged();
+    }
+
+    // Dipanggil setelah edge dependency benar-benar ditambah/dihapus lewat TaskManager
+    // (mis. untuk menyimpan edge ke database)
+    default void onDependencyAdded(Task task, Task prerequisite) {
+    }
+
+    default void onDependencyRemoved(Task task, Task prerequisite) {
+    }
+}
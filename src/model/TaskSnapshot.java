@@ -0,0 +1,44 @@
+package model;
+
+import java.util.*;
+
+// Snapshot daftar tugas yang tidak bisa diubah, diterbitkan TaskManager setiap ada perubahan
+// Reader cukup membaca field volatile tanpa lock dan tanpa menyalin list.
+// Versi naik setiap kali daftar atau isi tugas berubah, jadi pemanggil bisa melewati
+// perhitungan ulang jika versinya masih sama.
+public final class TaskSnapshot {
+    static final TaskSnapshot EMPTY = new TaskSnapshot(0, List.of(), new int[TaskStatus.values().length], 0);
+
+    private final long version;
+    private final List<Task> tasks;
+    private final int[] statusCounts; // index = TaskStatus.ordinal()
+    private final int openEstimatedHours;
+
+    TaskSnapshot(long version, List<Task> tasks, int[] statusCounts, int openEstimatedHours) {
+        this.version = version;
+        this.tasks = tasks;
+        this.statusCounts = statusCounts;
+        this.openEstimatedHours = openEstimatedHours;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    // List tidak bisa diubah; urutan sesuai waktu tugas ditambahkan
+    public List<Task> getTasks() {
+        return tasks;
+    }
+
+    public int size() {
+        return tasks.size();
+    }
+
+    public int countByStatus(TaskStatus status) {
+        return statusCounts[status.ordinal()];
+    }
+
+    public int getTotalEstimatedHours() {
+        return openEstimatedHours;
+    }
+}
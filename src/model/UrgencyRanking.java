@@ -0,0 +1,160 @@
+package model;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.function.Predicate;
+
+// Ranking urgensi tugas yang belum selesai, dijaga oleh TaskManager
+// Skor dihitung sekali per bucket waktu (per menit) terhadap satu "now" yang sama,
+// lalu disimpan di TreeSet. Skor hanya dihitung ulang jika tugasnya berubah
+// atau jam tersisa menuju deadline (komponen waktu dari skor) sudah berganti.
+public class UrgencyRanking {
+    private static final ChronoUnit BUCKET = ChronoUnit.MINUTES;
+
+    private final TaskManager taskManager;
+
+    // skor tertinggi di depan; seri diurutkan sesuai urutan tugas mulai dilacak
+    private final NavigableSet<Entry> ranking = new TreeSet<>((a, b) -> {
+        int cmp = Double.compare(b.score, a.score);
+        return cmp != 0 ? cmp : Long.compare(a.seq, b.seq);
+    });
+    private final Map<Task, Entry> entries = new HashMap<>();
+    // kapan skor sebuah entry kadaluarsa karena jam tersisa berganti (entry lama di-skip secara lazy)
+    private final PriorityQueue<Entry> expiries = new PriorityQueue<>(Comparator.comparing(e -> e.validUntil));
+    private final Set<Task> dirty = new LinkedHashSet<>();
+
+    private LocalDateTime bucketNow;
+    private long nextSeq = 0;
+    private long recomputeCount = 0;
+
+    private static class Entry {
+        final Task task;
+        final long seq;
+        final double score;
+        final LocalDateTime validUntil;
+        boolean stale = false;
+
+        Entry(Task task, long seq, double score, LocalDateTime validUntil) {
+            this.task = task;
+            this.seq = seq;
+            this.score = score;
+            this.validUntil = validUntil;
+        }
+    }
+
+    UrgencyRanking(TaskManager taskManager) {
+        this.taskManager = taskManager;
+    }
+
+    // Tandai tugas untuk dihitung ulang pada query berikutnya
+    void invalidate(Task task) {
+        dirty.add(task);
+    }
+
+    // Semua tugas yang belum selesai, paling mendesak di depan
+    public List<Task> getRanked() {
+        return getTopTasks(Integer.MAX_VALUE, t -> true);
+    }
+
+    public List<Task> getTopTasks(int count) {
+        return getTopTasks(count, t -> true);
+    }
+
+    // Ambil sampai "count" tugas teratas yang lolos filter, tanpa mengurutkan ulang
+    public List<Task> getTopTasks(int count, Predicate<Task> filter) {
+        taskManager.lock.lock();
+        try {
+            refresh(LocalDateTime.now());
+            List<Task> result = new ArrayList<>();
+            for (Entry entry : ranking) {
+                if (result.size() >= count) break;
+                if (filter.test(entry.task)) {
+                    result.add(entry.task);
+                }
+            }
+            return result;
+        } finally {
+            taskManager.lock.unlock();
+        }
+    }
+
+    // Skor yang dipakai ranking saat ini (sama dengan urutan yang ditampilkan)
+    public double getScore(Task task) {
+        taskManager.lock.lock();
+        try {
+            refresh(LocalDateTime.now());
+            Entry entry = entries.get(task);
+            return entry != null ? entry.score : task.calculateUrgencyScore(bucketNow);
+        } finally {
+            taskManager.lock.unlock();
+        }
+    }
+
+    public long getRecomputeCount() {
+        taskManager.lock.lock();
+        try {
+            return recomputeCount;
+        } finally {
+            taskManager.lock.unlock();
+        }
+    }
+
+    // Method package-private dipanggil dengan lock TaskManager sudah dipegang
+    // Pindah ke bucket waktu sekarang, lalu hitung ulang hanya tugas yang kotor atau kadaluarsa
+    void refresh(LocalDateTime now) {
+        LocalDateTime bucket = now.truncatedTo(BUCKET);
+        if (!bucket.equals(bucketNow)) {
+            bucketNow = bucket;
+            // semua skor dihitung ulang terhadap "now" bucket yang baru
+            while (!expiries.isEmpty() && !expiries.peek().validUntil.isAfter(bucketNow)) {
+                Entry expired = expiries.poll();
+                if (!expired.stale) {
+                    dirty.add(expired.task);
+                }
+            }
+        }
+
+        if (dirty.isEmpty()) return;
+
+        for (Task task : dirty) {
+            Entry old = entries.remove(task);
+            if (old != null) {
+                ranking.remove(old);
+                old.stale = true;
+            }
+
+            // hanya tugas yang masih di manager ini dan belum selesai yang diranking
+            if (task.owner != taskManager || task.status == TaskStatus.COMPLETED) continue;
+
+            long seq = old != null ? old.seq : nextSeq++;
+            Entry entry = new Entry(task, seq, task.calculateUrgencyScore(bucketNow), nextTimeChange(task, bucketNow));
+            entries.put(task, entry);
+            ranking.add(entry);
+            expiries.add(entry);
+            recomputeCount++;
+        }
+        dirty.clear();
+
+        // buang entry lama dari heap supaya tidak menumpuk
+        if (expiries.size() > 2 * entries.size() + 64) {
+            expiries.removeIf(e -> e.stale);
+        }
+    }
+
+    // Bucket pertama di mana jumlah jam tersisa (Duration.toHours) bisa berubah
+    private static LocalDateTime nextTimeChange(Task task, LocalDateTime now) {
+        if (task.dueDate == null) return LocalDateTime.MAX;
+
+        long hours = Duration.between(now, task.dueDate).toHours();
+        if (hours > 0) {
+            // berubah tepat setelah sisa waktu < hours jam
+            return task.dueDate.minusHours(hours).truncatedTo(BUCKET).plus(1, BUCKET);
+        }
+        // sudah lewat/kurang dari satu jam: berubah saat keterlambatan mencapai jam penuh berikutnya
+        LocalDateTime change = task.dueDate.plusHours(1 - hours);
+        LocalDateTime bucket = change.truncatedTo(BUCKET);
+        return bucket.equals(change) ? bucket : bucket.plus(1, BUCKET);
+    }
+}
@@ -2,7 +2,7 @@
 package model;
 
 import java.time.LocalDate;
-// import java.time.LocalDateTime;
+import java.time.LocalDateTime;
 import java.util.*;
 
 public class UserProfile {
@@ -11,11 +11,20 @@ public class UserProfile {
     private int level;
     private int streak;
     private LocalDate lastActivityDate;
-    private Map<LocalDate, Integer> productivityHistory;
+    private DailySeries productivityHistory; // menit belajar per hari
     private List<Achievement> achievements;
+    private Map<String, Achievement> achievementsByName;
+    private AchievementEngine achievementEngine;
     private List<ProfileObserver> observers;
     private List<Integer> pomodoroHistory;
     private Map<String, Double> subjectTimeDistribution;
+    private AvailabilityCalendar availability; // waktu yang bisa dipakai scheduler
+    
+    // counter yang dibaca rule achievement, di-update per event
+    private int completedTaskCount;
+    private int onTimeTaskCount;
+    private boolean studiedEarly;
+    private boolean studiedPastMidnight;
     
     public UserProfile(String username) {
         this.username = username;
@@ -23,23 +32,42 @@ public class UserProfile {
         this.level = 1;
         this.streak = 0;
         this.lastActivityDate = LocalDate.now();
-        this.productivityHistory = new HashMap<>();
+        this.productivityHistory = new DailySeries();
         this.achievements = new ArrayList<>();
+        this.achievementsByName = new HashMap<>();
+        this.achievementEngine = new AchievementEngine();
         this.pomodoroHistory = new ArrayList<>();
         this.subjectTimeDistribution = new HashMap<>();
+        this.availability = new AvailabilityCalendar();
         this.observers = new ArrayList<>(); 
         initializeAchievements();
         }
     
-    // inisialisasi daftar achievement dan kondisinya
+    // inisialisasi daftar achievement dari rule yang terdaftar di engine
     private void initializeAchievements() {
-        achievements.add(new Achievement("First Steps", "Complete your first task", 50, false));
-        achievements.add(new Achievement("Dedicated", "Maintain a 7-day streak", 200, false));
-        achievements.add(new Achievement("Marathon Runner", "Complete a 10-hour study session", 300, false));
-        achievements.add(new Achievement("Early Bird", "Start studying before 7 AM", 100, false));
-        achievements.add(new Achievement("Night Owl", "Study past midnight", 100, false));
-        achievements.add(new Achievement("Perfectionist", "Complete 10 tasks on time", 250, false));
-        achievements.add(new Achievement("Master", "Reach level 10", 500, false));
+        for (AchievementEngine.Rule rule : achievementEngine.getRules()) {
+            Achievement achievement = new Achievement(rule.name, rule.description, rule.xpReward, false);
+            achievements.add(achievement);
+            achievementsByName.put(rule.name, achievement);
+        }
+    }
+    
+    // mengganti achievement dengan data dari database (dicocokkan berdasarkan nama),
+    // achievement baru yang belum ada di database tetap dipertahankan
+    public void restoreAchievements(List<Achievement> loaded) {
+        for (Achievement achievement : loaded) {
+            Achievement existing = achievementsByName.put(achievement.getName(), achievement);
+            if (existing != null) {
+                achievements.set(achievements.indexOf(existing), achievement);
+            } else {
+                achievements.add(achievement);
+            }
+        }
+    }
+    
+    // cari achievement berdasarkan nama, null jika tidak ada
+    public Achievement getAchievement(String name) {
+        return achievementsByName.get(name);
     }
     
     
@@ -81,21 +109,55 @@ public class UserProfile {
         System.out.println("🎮 Adding XP: " + amount);
         System.out.println("   Before: Level " + level + ", XP " + xp);
     
-        xp += amount;
-        checkLevelUp();
-        checkAchievements();
+        grantXP(amount);
+        fireAchievementEvents(AchievementEvent.XP);
         notifyXPChanged();
 
         System.out.println("   After: Level " + level + ", XP " + xp);
     }
     
-    // mengecek dan menangani level up
+    // menambah XP tanpa notifikasi (dipakai addXP dan reward achievement)
+    void grantXP(int amount) {
+        xp += amount;
+        checkLevelUp();
+    }
+    
+    // mengecek dan menangani level up (bisa naik beberapa level sekaligus)
     private void checkLevelUp() {
-        int xpNeeded = level * 100;
-        if (xp >= xpNeeded) {
-            level++;
-            xp -= xpNeeded;
-            System.out.println("Level up! You are now level " + level);
+        if (xp < level * 100) return;
+        
+        long totalXP = totalXpForLevel(level) + xp;
+        level = levelForTotalXp(totalXP);
+        xp = (int) (totalXP - totalXpForLevel(level));
+        System.out.println("Level up! You are now level " + level);
+    }
+    
+    // total XP yang dibutuhkan untuk mencapai level tertentu dari level 1
+    // level L butuh L * 100 XP untuk naik, jadi total = 100 * (1 + 2 + ... + (L-1)) = 50 * L * (L-1)
+    public static long totalXpForLevel(int level) {
+        if (level <= 1) return 0;
+        return 50L * level * (level - 1);
+    }
+    
+    // kebalikan totalXpForLevel: level tertinggi yang total XP-nya <= totalXP
+    public static int levelForTotalXp(long totalXP) {
+        if (totalXP <= 0) return 1;
+        // akar dari 50 * L * (L-1) = totalXP
+        int level = (int) ((1 + Math.sqrt(1 + totalXP / 12.5)) / 2);
+        // koreksi pembulatan floating point
+        while (totalXpForLevel(level + 1) <= totalXP) level++;
+        while (level > 1 && totalXpForLevel(level) > totalXP) level--;
+        return level;
+    }
+    
+    // memulihkan state dari database tanpa memicu event, level up, atau achievement
+    public void restoreState(int xp, int level, int streak, LocalDate lastActivityDate) {
+        long totalXP = totalXpForLevel(Math.max(1, level)) + Math.max(0, xp);
+        this.level = levelForTotalXp(totalXP);
+        this.xp = (int) (totalXP - totalXpForLevel(this.level));
+        this.streak = streak;
+        if (lastActivityDate != null) {
+            this.lastActivityDate = lastActivityDate;
         }
     }
     
@@ -111,54 +173,91 @@ public class UserProfile {
         
         lastActivityDate = today;
         notifyStreakChanged();
-        checkAchievements();
+        if (fireAchievementEvents(AchievementEvent.STREAK)) {
+            notifyXPChanged();
+        }
     }
     
     // merekam produktivitas belajar harian
     public void recordProductivity(int minutesStudied) {
         LocalDate today = LocalDate.now();
-        productivityHistory.merge(today, minutesStudied, Integer::sum);
+        productivityHistory.add(today, minutesStudied);
         updateStreak();
+        
+        // jam mulai sesi: 00:00-04:59 dihitung lewat tengah malam, 05:00-06:59 pagi-pagi
+        int startHour = LocalDateTime.now().minusMinutes(minutesStudied).getHour();
+        if (startHour < 5) {
+            studiedPastMidnight = true;
+        } else if (startHour < 7) {
+            studiedEarly = true;
+        }
+        if (fireAchievementEvents(AchievementEvent.STUDY_SESSION, AchievementEvent.TIME_OF_DAY)) {
+            notifyXPChanged();
+        }
         notifyProductivityRecorded(minutesStudied);
     }
     
+    // merekam tugas yang selesai (dipanggil MainController.completeTask)
+    public void recordTaskCompleted(boolean onTime) {
+        completedTaskCount++;
+        if (onTime) onTimeTaskCount++;
+        if (fireAchievementEvents(AchievementEvent.TASK_COMPLETED)) {
+            notifyXPChanged();
+        }
+    }
+    
+    // memulihkan counter tugas dari data yang sudah dimuat, tanpa memicu achievement
+    public void restoreTaskCounters(int completedTasks, int onTimeTasks) {
+        this.completedTaskCount = completedTasks;
+        this.onTimeTaskCount = onTimeTasks;
+    }
+    
     // merekam sesi pomodoro
     public void recordPomodoro() {
         pomodoroHistory.add(25); // Standard 25-minute session
         addXP(10);
     }
     
-    // memperbarui distribusi waktu berdasarkan subject (matkul)
-    private void checkAchievements() {
-        for (Achievement achievement : achievements) {
-            if (!achievement.isUnlocked() && achievement.checkCondition(this)) {
-                achievement.unlock();
-                addXP(achievement.getXpReward());
-                System.out.println("Achievement unlocked: " + achievement.getName());
-            }
+    // mengecek hanya rule yang bergantung pada event ini; true jika ada XP reward yang masuk
+    private boolean fireAchievementEvents(AchievementEvent... events) {
+        List<Achievement> unlocked = achievementEngine.evaluate(this, events);
+        for (Achievement achievement : unlocked) {
+            System.out.println("Achievement unlocked: " + achievement.getName());
+            notifyAchievementUnlocked(achievement);
         }
+        return !unlocked.isEmpty();
     }
     
-    // mendapatkan produktivitas minggu lalu
+    // mendapatkan produktivitas minggu lalu (urut dari 6 hari lalu sampai hari ini)
     public Map<LocalDate, Integer> getLastWeekProductivity() {
-        Map<LocalDate, Integer> lastWeek = new HashMap<>();
+        Map<LocalDate, Integer> lastWeek = new LinkedHashMap<>();
         LocalDate today = LocalDate.now();
         
         // mengisi data untuk 7 hari terakhir
         for (int i = 6; i >= 0; i--) {
             LocalDate date = today.minusDays(i);
-            lastWeek.put(date, productivityHistory.getOrDefault(date, 0));
+            lastWeek.put(date, productivityHistory.get(date));
         }
         
         return lastWeek;
     }
     
+    // menit belajar pada tanggal tertentu
+    public int getStudyMinutes(LocalDate date) {
+        return productivityHistory.get(date);
+    }
+    
+    // total menit belajar 'days' hari terakhir termasuk hari ini, O(1)
+    public int getStudyMinutesLastDays(int days) {
+        return (int) productivityHistory.sumLastDays(LocalDate.now(), days);
+    }
+    
     public int getTotalPomodoroSessions() {
         return pomodoroHistory.size();
     }
     
     public int getTotalStudyMinutes() {
-        return productivityHistory.values().stream().mapToInt(Integer::intValue).sum();
+        return (int) productivityHistory.total();
     }
     
     // Getters
@@ -174,10 +273,43 @@ public class UserProfile {
         return level; 
     }
 
+    // total XP sejak level 1 (bukan hanya sisa XP di level sekarang)
+    public long getTotalXP() {
+        return totalXpForLevel(level) + xp;
+    }
+
     public int getStreak() { 
         return streak; 
     }
 
+    public LocalDate getLastActivityDate() { 
+        return lastActivityDate; 
+    }
+
+    public AvailabilityCalendar getAvailability() {
+        return availability;
+    }
+
+    public void setAvailability(AvailabilityCalendar availability) {
+        this.availability = availability;
+    }
+
+    public int getCompletedTaskCount() {
+        return completedTaskCount;
+    }
+
+    public int getOnTimeTaskCount() {
+        return onTimeTaskCount;
+    }
+
+    boolean hasStudiedEarly() {
+        return studiedEarly;
+    }
+
+    boolean hasStudiedPastMidnight() {
+        return studiedPastMidnight;
+    }
+
     // generic getter untuk achievements
     public List<Achievement> getAchievements() { 
         return achievements; 
@@ -189,7 +321,7 @@ public class UserProfile {
     }
 
     // getter untuk productivity history
-    public Map<LocalDate, Integer> getProductivityHistory() { 
+    public DailySeries getProductivityHistory() { 
         return productivityHistory; 
     }
 }
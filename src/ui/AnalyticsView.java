@@ -60,15 +60,15 @@ public class AnalyticsView {
         
         // cards untuk statistik utama
         VBox totalTasks = createAnalyticCard("Total Tasks", 
-            String.valueOf(taskManager.getAllTasks().size()), "#89b4fa");
+            String.valueOf(taskManager.getTaskCount()), "#89b4fa");
 
         // untuk tugas yang telah diselesaikan(completed)
         VBox completed = createAnalyticCard("Completed", 
-            String.valueOf(taskManager.getTasksByStatus(TaskStatus.COMPLETED).size()), "#a6e3a1");
+            String.valueOf(taskManager.countByStatus(TaskStatus.COMPLETED)), "#a6e3a1");
         
         // untuk tugas yang terlambat (overdue)
         VBox overdue = createAnalyticCard("Overdue", 
-            String.valueOf(taskManager.getTasksByStatus(TaskStatus.OVERDUE).size()), "#f38ba8");
+            String.valueOf(taskManager.countByStatus(TaskStatus.OVERDUE)), "#f38ba8");
         
         // untuk rata-rata waktu penyelesaian tugas
         VBox avgTime = createAnalyticCard("Avg. Completion", "2.5 hrs", "#f9e2af");
@@ -112,8 +112,8 @@ public class AnalyticsView {
         Label title = new Label("Task Completion Rate");
         title.setStyle("-fx-font-size: 18px; -fx-font-weight: bold; -fx-text-fill: #cdd6f4;");
         
-        int total = taskManager.getAllTasks().size();
-        int completed = taskManager.getTasksByStatus(TaskStatus.COMPLETED).size();
+        int total = taskManager.getTaskCount();
+        int completed = taskManager.countByStatus(TaskStatus.COMPLETED);
         double percentage = total > 0 ? (double) completed / total * 100 : 0;
         
         // progress bar untuk menampilkan persentase penyelesaian
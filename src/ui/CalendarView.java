@@ -4,6 +4,7 @@ import javafx.scene.layout.*;
 import javafx.scene.control.*;
 import javafx.geometry.*;
 import model.*;
+import database.AvailabilityDAO;
 import java.time.*;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
@@ -13,9 +14,24 @@ public class CalendarView {
     private BorderPane view;
     private TaskManager taskManager;
     private YearMonth currentMonth;
+    private AvailabilityCalendar availability; // null = tanpa overlay ketersediaan
+    private AvailabilityDAO availabilityDAO;   // null = jam belajar tidak bisa diedit
+    private int currentUserId;
     
     public CalendarView(TaskManager taskManager) {
+        this(taskManager, null);
+    }
+    
+    public CalendarView(TaskManager taskManager, AvailabilityCalendar availability) {
+        this(taskManager, availability, null, 0);
+    }
+    
+    public CalendarView(TaskManager taskManager, AvailabilityCalendar availability,
+                        AvailabilityDAO availabilityDAO, int currentUserId) {
         this.taskManager = taskManager;
+        this.availability = availability;
+        this.availabilityDAO = availabilityDAO;
+        this.currentUserId = currentUserId;
         this.currentMonth = YearMonth.now();
         this.view = new BorderPane();
         buildView();
@@ -77,9 +93,83 @@ public class CalendarView {
         
         // menambahkan elemen ke header
         header.getChildren().addAll(prevBtn, monthLabel, nextBtn, spacer, todayBtn);
+        
+        if (availability != null && availabilityDAO != null) {
+            Button hoursBtn = new Button("Study Hours");
+            hoursBtn.setStyle("-fx-background-color: #313244; -fx-text-fill: #cdd6f4; -fx-font-weight: bold;");
+            hoursBtn.setOnAction(e -> showStudyHoursDialog());
+            header.getChildren().add(hoursBtn);
+        }
         return header;
     }
     
+    // method untuk mengedit jam belajar mingguan (satu rentang per hari), lalu disimpan ke database
+    private void showStudyHoursDialog() {
+        Dialog<Boolean> dialog = new Dialog<>();
+        dialog.setTitle("Study Hours");
+        dialog.setHeaderText("Weekly hours available for studying");
+        dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+        
+        GridPane grid = new GridPane();
+        grid.setHgap(10);
+        grid.setVgap(10);
+        grid.setPadding(new Insets(20));
+        
+        Map<DayOfWeek, CheckBox> enabled = new EnumMap<>(DayOfWeek.class);
+        Map<DayOfWeek, Spinner<Integer>> fromHours = new EnumMap<>(DayOfWeek.class);
+        Map<DayOfWeek, Spinner<Integer>> toHours = new EnumMap<>(DayOfWeek.class);
+        
+        int row = 0;
+        for (DayOfWeek day : DayOfWeek.values()) {
+            // rentang yang ditampilkan: slot bebas pertama sampai terakhir pada template hari itu
+            long[] slots = availability.getWeeklySlots(day);
+            int first = -1, last = -1;
+            for (int slot = 0; slot < AvailabilityCalendar.SLOTS_PER_DAY; slot++) {
+                if (AvailabilityCalendar.isSet(slots, slot)) {
+                    if (first < 0) first = slot;
+                    last = slot;
+                }
+            }
+            int slotsPerHour = 60 / AvailabilityCalendar.SLOT_MINUTES;
+            
+            CheckBox check = new CheckBox(day.toString().charAt(0) + day.toString().substring(1).toLowerCase());
+            check.setSelected(first >= 0);
+            Spinner<Integer> from = new Spinner<>(0, 23, first >= 0 ? first / slotsPerHour : 9);
+            Spinner<Integer> to = new Spinner<>(1, 24, first >= 0 ? (last + slotsPerHour) / slotsPerHour : 22);
+            from.disableProperty().bind(check.selectedProperty().not());
+            to.disableProperty().bind(check.selectedProperty().not());
+            
+            grid.add(check, 0, row);
+            grid.add(from, 1, row);
+            grid.add(new Label("to"), 2, row);
+            grid.add(to, 3, row);
+            enabled.put(day, check);
+            fromHours.put(day, from);
+            toHours.put(day, to);
+            row++;
+        }
+        
+        dialog.getDialogPane().setContent(grid);
+        dialog.setResultConverter(btn -> btn == ButtonType.OK);
+        
+        dialog.showAndWait().ifPresent(saved -> {
+            if (!saved) return;
+            for (DayOfWeek day : DayOfWeek.values()) {
+                availability.setWeeklyAvailability(day, LocalTime.MIDNIGHT, LocalTime.MIDNIGHT, false);
+                int from = fromHours.get(day).getValue();
+                int to = toHours.get(day).getValue();
+                if (enabled.get(day).isSelected() && from < to) {
+                    availability.setWeeklyAvailability(day, LocalTime.of(from, 0),
+                        to == 24 ? LocalTime.MIDNIGHT : LocalTime.of(to, 0), true);
+                }
+            }
+            
+            // ⭐ SAVE TO DATABASE
+            availabilityDAO.saveAvailability(currentUserId, availability);
+            buildView();
+        });
+    }
+    
     // method untuk membuat grid kalender
     private GridPane createCalendar() {
         GridPane calendar = new GridPane();
@@ -104,10 +194,13 @@ public class CalendarView {
         int row = 1;
         int col = dayOfWeek;
         
+        // jumlah tugas per hari diambil sekali dari index due date TaskManager
+        Map<LocalDate, Integer> taskCounts = taskManager.countTasksPerDay(firstDay, currentMonth.atEndOfMonth());
+        
         // Looping buat setiap hari dalam bulan
         for (int day = 1; day <= daysInMonth; day++) {
             LocalDate date = currentMonth.atDay(day);
-            VBox dayBox = createDayBox(date);
+            VBox dayBox = createDayBox(date, taskCounts.getOrDefault(date, 0));
             calendar.add(dayBox, col, row);
             
             col++;
@@ -121,7 +214,7 @@ public class CalendarView {
     }
     
     // method untuk membuat kotak hari individual 
-    private VBox createDayBox(LocalDate date) {
+    private VBox createDayBox(LocalDate date, int taskCount) {
         VBox box = new VBox(5);
         box.setPadding(new Insets(10));
         box.setPrefSize(150, 100);
@@ -137,10 +230,6 @@ public class CalendarView {
         dayNumber.setStyle("-fx-font-weight: bold; -fx-text-fill: " + (isToday ? "#89b4fa" : "#cdd6f4") + ";");
         
         // display jumlah tugas pada hari tersebut
-        long taskCount = taskManager.getAllTasks().stream()
-            .filter(t -> t.getDueDate().toLocalDate().equals(date)) // filter tugas berdasarkan tanggal
-            .count();
-        
         // hanya tampilkan jika ada tugas
         if (taskCount > 0) {
             Label taskLabel = new Label(taskCount + " task" + (taskCount > 1 ? "s" : ""));
@@ -148,6 +237,15 @@ public class CalendarView {
             box.getChildren().add(taskLabel);
         }
         
+        // overlay ketersediaan: jumlah jam bebas dari bitmap slot (popcount, tanpa iterasi per jam)
+        if (availability != null) {
+            int freeSlots = availability.countFreeSlots(date);
+            double freeHours = freeSlots * AvailabilityCalendar.SLOT_MINUTES / 60.0;
+            Label freeLabel = new Label(freeSlots == 0 ? "unavailable" : String.format("%.1fh free", freeHours));
+            freeLabel.setStyle("-fx-font-size: 10px; -fx-text-fill: " + (freeSlots == 0 ? "#f38ba8" : "#a6e3a1") + ";");
+            box.getChildren().add(freeLabel);
+        }
+        
         // menambahkan nomor hari ke dalam kotak
         box.getChildren().add(0, dayNumber);
         return box;
@@ -163,10 +261,9 @@ public class CalendarView {
         title.setStyle("-fx-font-size: 18px; -fx-font-weight: bold; -fx-text-fill: #cdd6f4;");
         
         // ambil semua tugas di bulan ini
-        List<Task> monthTasks = taskManager.getAllTasks().stream()
-            .filter(t -> YearMonth.from(t.getDueDate()).equals(currentMonth))
-            .sorted((a, b) -> a.getDueDate().compareTo(b.getDueDate()))
-            .toList();
+        List<Task> monthTasks = taskManager.getTasksDueBetween(
+            currentMonth.atDay(1).atStartOfDay(),
+            currentMonth.plusMonths(1).atDay(1).atStartOfDay());
         
         // jika tidak ada tugas, tampilkan pesan kosong
         if (monthTasks.isEmpty()) {
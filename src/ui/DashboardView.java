@@ -93,7 +93,7 @@ public class DashboardView {
         VBox streakCard = createStatCard("🔥 Streak", userProfile.getStreak() + " days", "#f38ba8");
         VBox levelCard = createStatCard("⭐ Level", String.valueOf(userProfile.getLevel()), "#89b4fa");
         VBox tasksCard = createStatCard("✓ Completed", 
-            taskManager.getTasksByStatus(TaskStatus.COMPLETED).size() + " tasks", "#a6e3a1");
+            taskManager.countByStatus(TaskStatus.COMPLETED) + " tasks", "#a6e3a1");
         VBox hoursCard = createStatCard("⏱ Study Time", 
             // userProfile.getTotalStudyMinutes() / 60 + " hours", "#f9e2af");
              formatStudyTime(userProfile.getTotalStudyMinutes()), "#f9e2af");
@@ -148,9 +148,7 @@ public class DashboardView {
         title.setStyle("-fx-font-size: 18px; -fx-font-weight: bold; -fx-text-fill: #cdd6f4;");
         
         VBox tasksList = new VBox(10);
-        List<Task> urgentTasks = taskManager.getTasksSortedByUrgency().stream()
-            .limit(5)
-            .toList();
+        List<Task> urgentTasks = taskManager.getUrgencyRanking().getTopTasks(5);
         
         if (urgentTasks.isEmpty()) {
             // pesan ketika tidak ada tugas
@@ -203,7 +201,7 @@ public class DashboardView {
         info.getChildren().addAll(taskTitle, dueLabel);
         
         // Urgency score
-        Label scoreLabel = new Label(String.format("%.0f", task.calculateUrgencyScore()));
+        Label scoreLabel = new Label(String.format("%.0f", taskManager.getUrgencyRanking().getScore(task)));
         scoreLabel.setStyle("-fx-font-size: 16px; -fx-font-weight: bold; -fx-text-fill: " + priorityColor + ";");
         
         item.getChildren().addAll(priorityBar, info, scoreLabel);
@@ -231,19 +229,25 @@ public class DashboardView {
     private VBox createWeeklyChart() {
         VBox chart = new VBox(10);
         chart.setAlignment(Pos.BOTTOM_CENTER);
-        Map<LocalDate, Integer> weekData = userProfile.getLastWeekProductivity();
-        
-        int maxMinutes = weekData.values().stream().mapToInt(Integer::intValue).max().orElse(1);
+        LocalDate today = LocalDate.now();
+        
+        // baca langsung dari deret harian, tanpa membangun map per render
+        int[] weekMinutes = new int[7];
+        int maxMinutes = 0;
+        for (int i = 0; i < 7; i++) {
+            weekMinutes[i] = userProfile.getStudyMinutes(today.minusDays(6 - i));
+            maxMinutes = Math.max(maxMinutes, weekMinutes[i]);
+        }
         
         HBox bars = new HBox(15);
         bars.setAlignment(Pos.BOTTOM_CENTER);
         bars.setPrefHeight(250);
         
-        for (Map.Entry<LocalDate, Integer> entry : weekData.entrySet()) {
+        for (int i = 0; i < 7; i++) {
             VBox dayBar = new VBox(5);
             dayBar.setAlignment(Pos.BOTTOM_CENTER);
             
-            int minutes = entry.getValue();
+            int minutes = weekMinutes[i];
             double height = maxMinutes > 0 ? (double)minutes / maxMinutes * 200 : 0;
             
             Region bar = new Region();
@@ -251,7 +255,7 @@ public class DashboardView {
             bar.setPrefHeight(Math.max(5, height));
             bar.setStyle("-fx-background-color: #89b4fa; -fx-background-radius: 5 5 0 0;");
             
-            String dayName = entry.getKey().format(DateTimeFormatter.ofPattern("EEE"));
+            String dayName = today.minusDays(6 - i).format(DateTimeFormatter.ofPattern("EEE"));
             Label dayLabel = new Label(dayName);
             dayLabel.setStyle("-fx-font-size: 11px; -fx-text-fill: #a6adc8;");
             
@@ -2,24 +2,37 @@ package ui;
 
 import javafx.scene.layout.*;
 import javafx.stage.Stage;
+import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.geometry.*;
+import database.FlashcardDAO;
+import database.SearchResult;
+import database.WriteBehindService;
 import java.util.*;
 
 public class FlashcardsView {
     private BorderPane view;
-    private model.DeckManager deckManager;
+    private FlashcardDAO flashcardDAO;
+    private WriteBehindService writeBehind; // hasil review disimpan di background thread
+    private int currentUserId;
+    private List<model.DeckSummary> decks; // grid hanya butuh ringkasan, kartu dimuat saat deck dibuka
     private VBox mainContent;
+    private GridPane decksGrid;
+    private ListView<String> searchResults;
     
-    public FlashcardsView() {
+    public FlashcardsView(FlashcardDAO flashcardDAO, WriteBehindService writeBehind, int currentUserId) {
         this.view = new BorderPane();
-        this.deckManager = new model.DeckManager();
-        loadSampleDecks(); // buat demo
+        this.flashcardDAO = flashcardDAO;
+        this.writeBehind = writeBehind;
+        this.currentUserId = currentUserId;
         buildView();
     }
     // method untuk membangun tampilan utama
     private void buildView() {
+        writeBehind.flush(); // review yang masih di antrian harus ikut terhitung di ringkasan
+        decks = flashcardDAO.loadDeckSummaries(currentUserId);
+        
         mainContent = new VBox(20);
         mainContent.setPadding(new Insets(30));
         
@@ -29,8 +42,10 @@ public class FlashcardsView {
         // Stats row
         HBox stats = createStatsRow();
         
-        // Decks grid
-        GridPane decksGrid = createDecksGrid();
+        // Decks grid (diganti daftar hasil saat mencari kartu)
+        decksGrid = createDecksGrid();
+        searchResults = new ListView<>();
+        searchResults.setPrefHeight(400);
         
         mainContent.getChildren().addAll(header, stats, decksGrid);
         
@@ -52,26 +67,53 @@ public class FlashcardsView {
         Region spacer = new Region();
         HBox.setHgrow(spacer, Priority.ALWAYS);
         
+        TextField searchField = new TextField();
+        searchField.setPromptText("Search cards...");
+        searchField.setPrefWidth(250);
+        searchField.textProperty().addListener((obs, old, newVal) -> searchCards(newVal));
+        
         Button addDeckBtn = new Button("+ New Deck");
         addDeckBtn.setStyle("-fx-background-color: #89b4fa; -fx-text-fill: #1e1e2e; " +
                            "-fx-font-size: 14px; -fx-font-weight: bold; -fx-padding: 10 20;");
         addDeckBtn.setOnAction(e -> showCreateDeckDialog());
         
-        header.getChildren().addAll(title, spacer, addDeckBtn);
+        header.getChildren().addAll(title, spacer, searchField, addDeckBtn);
         return header;
     }
     
+    // method untuk mencari kartu lewat indeks FTS5 (pertanyaan dan jawaban semua deck)
+    private void searchCards(String query) {
+        Node shown = query.isBlank() ? decksGrid : searchResults;
+        if (!query.isBlank()) {
+            searchResults.getItems().clear();
+            for (SearchResult result : flashcardDAO.searchFlashcards(currentUserId, query, 100)) {
+                searchResults.getItems().add(result.getTitle() + "  —  " + result.getSnippet());
+            }
+        }
+        int last = mainContent.getChildren().size() - 1;
+        if (mainContent.getChildren().get(last) != shown) {
+            mainContent.getChildren().set(last, shown);
+        }
+    }
+    
     // method untuk membuat row statistik
     private HBox createStatsRow() {
         HBox stats = new HBox(20);
         stats.setAlignment(Pos.CENTER);
         
+        int total = 0, due = 0, masteredCount = 0;
+        for (model.DeckSummary deck : decks) {
+            total += deck.getTotalCards();
+            due += deck.getDueCards();
+            masteredCount += deck.getMasteredCards();
+        }
+        
         VBox totalCards = createStatCard("Total Cards", 
-            String.valueOf(deckManager.getTotalCards()), "#89b4fa");
+            String.valueOf(total), "#89b4fa");
         VBox dueCards = createStatCard("Due Today", 
-            String.valueOf(deckManager.getTotalCardsDue()), "#f9e2af");
+            String.valueOf(due), "#f9e2af");
         VBox mastered = createStatCard("Mastered", 
-            String.valueOf(deckManager.getTotalMastered()), "#a6e3a1");
+            String.valueOf(masteredCount), "#a6e3a1");
         
         stats.getChildren().addAll(totalCards, dueCards, mastered);
         return stats;
@@ -101,13 +143,11 @@ public class FlashcardsView {
         grid.setHgap(20);
         grid.setVgap(20);
         
-        List<model.Deck> decks = deckManager.getAllDecks();
-        
         int col = 0;
         int row = 0;
         
         // looping setiap deck
-        for (model.Deck deck : decks) {
+        for (model.DeckSummary deck : decks) {
             VBox deckCard = createDeckCard(deck);
             grid.add(deckCard, col, row);
             
@@ -122,7 +162,7 @@ public class FlashcardsView {
     }
     
     // method untuk membuat card deck individual
-    private VBox createDeckCard(model.Deck deck) {
+    private VBox createDeckCard(model.DeckSummary deck) {
         VBox card = new VBox(15);
         card.setPadding(new Insets(20));
         card.setPrefWidth(350);
@@ -139,7 +179,7 @@ public class FlashcardsView {
         Label totalLabel = new Label(deck.getTotalCards() + " cards");
         totalLabel.setStyle("-fx-text-fill: #89b4fa; -fx-font-size: 12px;");
         
-        Label dueLabel = new Label(deck.getCardsToReview() + " due");
+        Label dueLabel = new Label(deck.getDueCards() + " due");
         dueLabel.setStyle("-fx-text-fill: #f9e2af; -fx-font-size: 12px;");
         
         Label masteryLabel = new Label(String.format("%.0f%% mastery", deck.getAverageMastery()));
@@ -165,8 +205,9 @@ public class FlashcardsView {
     }
     
     // method untuk memulai sesi belajar
-    private void startStudySession(model.Deck deck) {
-        List<model.Flashcard> dueCards = deck.getCardsDueForReview();
+    private void startStudySession(model.DeckSummary deck) {
+        writeBehind.flush();
+        List<model.Flashcard> dueCards = flashcardDAO.getCardsDueForReview(deck.getId());
         
         if (dueCards.isEmpty()) {
             Alert alert = new Alert(Alert.AlertType.INFORMATION);
@@ -181,7 +222,7 @@ public class FlashcardsView {
     }
     
     // method untuk menampilkan mode belajar
-    private void showStudyMode(model.Deck deck, List<model.Flashcard> cards) {
+    private void showStudyMode(model.DeckSummary deck, List<model.Flashcard> cards) {
         Stage studyStage = new Stage();
         studyStage.setTitle("Study: " + deck.getName());
         
@@ -263,25 +304,18 @@ public class FlashcardsView {
             }
         };
         
-        againBtn.setOnAction(e -> {
-            cards.get(currentIndex[0]).recordReview(0);
-            nextCard.run();
-        });
-        
-        hardBtn.setOnAction(e -> {
-            cards.get(currentIndex[0]).recordReview(2);
-            nextCard.run();
-        });
-        
-        goodBtn.setOnAction(e -> {
-            cards.get(currentIndex[0]).recordReview(4);
+        // antrikan hasil review ke database (write-behind) lalu lanjut ke kartu berikutnya
+        java.util.function.IntConsumer review = quality -> {
+            model.Flashcard card = cards.get(currentIndex[0]);
+            card.recordReview(quality);
+            writeBehind.queueFlashcardUpdate(card.getId(), card);
             nextCard.run();
-        });
+        };
         
-        easyBtn.setOnAction(e -> {
-            cards.get(currentIndex[0]).recordReview(5);
-            nextCard.run();
-        });
+        againBtn.setOnAction(e -> review.accept(0));
+        hardBtn.setOnAction(e -> review.accept(2));
+        goodBtn.setOnAction(e -> review.accept(4));
+        easyBtn.setOnAction(e -> review.accept(5));
         
         studyContent.getChildren().addAll(progressLabel, cardBox, showAnswerBtn, ratingButtons);
         studyLayout.setCenter(studyContent);
@@ -334,13 +368,13 @@ public class FlashcardsView {
         });
         
         dialog.showAndWait().ifPresent(deck -> {
-            deckManager.addDeck(deck);
+            flashcardDAO.saveDeck(currentUserId, deck);
             buildView();
         });
     }
     
     // method untuk menampilkan dialog manajemen kartu
-    private void showManageCardsDialog(model.Deck deck) {
+    private void showManageCardsDialog(model.DeckSummary deck) {
         Stage stage = new Stage();
         stage.setTitle("Manage: " + deck.getName());
         
@@ -353,7 +387,7 @@ public class FlashcardsView {
         ListView<String> cardsList = new ListView<>();
         cardsList.setPrefHeight(400);
         
-        for (model.Flashcard card : deck.getAllCards()) {
+        for (model.Flashcard card : flashcardDAO.loadFlashcardsByDeck(deck.getId())) {
             cardsList.getItems().add(card.getQuestion() + " -> " + card.getAnswer());
         }
         
@@ -365,7 +399,7 @@ public class FlashcardsView {
     }
     
     // method untuk menampilkan dialog penambahan kartu baru
-    private void showAddCardDialog(model.Deck deck, Stage parentStage) {
+    private void showAddCardDialog(model.DeckSummary deck, Stage parentStage) {
         Dialog<model.Flashcard> dialog = new Dialog<>();
         dialog.setTitle("Add New Card");
         
@@ -405,29 +439,13 @@ public class FlashcardsView {
         });
         
         dialog.showAndWait().ifPresent(card -> {
-            deck.addCard(card);
+            flashcardDAO.saveFlashcard(deck.getId(), card);
             parentStage.close();
+            buildView(); // jumlah kartu di grid ikut berubah
             showManageCardsDialog(deck);
         });
     }
     
-    // method untuk memuat deck sampel
-    private void loadSampleDecks() {
-        // Sample deck 1: Java Programming
-        model.Deck javaDeck = new model.Deck("Java Programming", "Core Java concepts and syntax");
-        javaDeck.addCard(new model.Flashcard("What is polymorphism?", "The ability of objects to take many forms. Allows methods to do different things based on the object."));
-        javaDeck.addCard(new model.Flashcard("What is encapsulation?", "Bundling data and methods that operate on that data within a single unit (class)."));
-        javaDeck.addCard(new model.Flashcard("What is inheritance?", "Mechanism where a new class inherits properties and methods from an existing class."));
-        deckManager.addDeck(javaDeck);
-        
-        // Sample deck 2: Data Structures
-        model.Deck dsDeck = new model.Deck("Data Structures", "Common data structures and algorithms");
-        dsDeck.addCard(new model.Flashcard("What is Big O notation?", "Mathematical notation to describe algorithm complexity in terms of time or space."));
-        dsDeck.addCard(new model.Flashcard("What is a Stack?", "LIFO (Last In First Out) data structure with push and pop operations."));
-        dsDeck.addCard(new model.Flashcard("What is a Queue?", "FIFO (First In First Out) data structure with enqueue and dequeue operations."));
-        deckManager.addDeck(dsDeck);
-    }
-    
     public BorderPane getView() {
         return view;
     }
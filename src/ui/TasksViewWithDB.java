@@ -7,33 +7,68 @@ import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.collections.*;
 import model.*;
 import controller.MainController;
+import database.SearchResult;
 import database.TaskDAO;
+import database.WriteBehindService;
 import java.time.*;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import javafx.application.Platform;
 
 /**
  * TasksViewWithDB - TasksView dengan database integration
  * Setiap operasi (add, edit, delete, complete) langsung disimpan ke database
  */
 public class TasksViewWithDB {
+    private static final int SEARCH_LIMIT = 200; // hasil pencarian maksimum yang ditampilkan
+    
     private BorderPane view;
     private TaskManager taskManager;
     private MainController controller;
     private TaskDAO taskDAO;
+    private WriteBehindService writeBehind; // edit tugas disimpan di background thread
     private int currentUserId;
     private TableView<Task> taskTable;
     private ObservableList<Task> taskData;
+    private Predicate<Task> activeFilter = t -> true; // filter/pencarian yang sedang aktif
+    
+    // Observer yang mem-patch baris tabel sesuai delta, tanpa memuat ulang seluruh daftar
+    private final TaskObserver taskChangeObserver = new TaskObserver() {
+        @Override
+        public void onTasksChanged() {
+            runOnFxThread(() -> showTasks(activeFilter));
+        }
+        
+        @Override
+        public void onTasksChanged(TaskChangeBatch batch) {
+            runOnFxThread(() -> applyChanges(batch));
+        }
+    };
     
     public TasksViewWithDB(TaskManager taskManager, MainController controller, 
-                          TaskDAO taskDAO, int currentUserId) {
+                          TaskDAO taskDAO, WriteBehindService writeBehind, int currentUserId) {
         this.taskManager = taskManager;
         this.controller = controller;
         this.taskDAO = taskDAO;
+        this.writeBehind = writeBehind;
         this.currentUserId = currentUserId;
         this.view = new BorderPane();
         this.taskData = FXCollections.observableArrayList(taskManager.getAllTasks());
         buildView();
+        
+        // observer hanya terdaftar selama view tampil, supaya view lama tidak ikut di-update
+        view.sceneProperty().addListener((obs, oldScene, newScene) -> {
+            taskManager.removeObserver(taskChangeObserver);
+            if (newScene != null) {
+                taskManager.addObserver(taskChangeObserver);
+            }
+        });
     }
     
     private void buildView() {
@@ -97,40 +132,75 @@ public class TasksViewWithDB {
     }
     
     private void applyFilters(String statusFilter, String priorityFilter) {
-        taskData.clear();
-        List<Task> filtered = taskManager.getAllTasks();
+        Predicate<Task> filter = t -> true;
         
         if (!statusFilter.equals("All")) {
-            filtered = filtered.stream()
-                .filter(t -> {
-                    TaskStatus status = switch (statusFilter) {
-                        case "To Do" -> TaskStatus.TODO;
-                        case "In Progress" -> TaskStatus.IN_PROGRESS;
-                        case "Completed" -> TaskStatus.COMPLETED;
-                        case "Overdue" -> TaskStatus.OVERDUE;
-                        default -> null;
-                    };
-                    return status != null && t.getStatus() == status;
-                })
-                .toList();
+            TaskStatus status = switch (statusFilter) {
+                case "To Do" -> TaskStatus.TODO;
+                case "In Progress" -> TaskStatus.IN_PROGRESS;
+                case "Completed" -> TaskStatus.COMPLETED;
+                case "Overdue" -> TaskStatus.OVERDUE;
+                default -> null;
+            };
+            filter = filter.and(t -> status != null && t.getStatus() == status);
         }
         
         if (!priorityFilter.equals("All Priorities")) {
-            filtered = filtered.stream()
-                .filter(t -> {
-                    TaskPriority priority = switch (priorityFilter) {
-                        case "Urgent" -> TaskPriority.URGENT;
-                        case "High" -> TaskPriority.HIGH;
-                        case "Medium" -> TaskPriority.MEDIUM;
-                        case "Low" -> TaskPriority.LOW;
-                        default -> null;
-                    };
-                    return priority != null && t.getPriority() == priority;
-                })
-                .toList();
+            TaskPriority priority = switch (priorityFilter) {
+                case "Urgent" -> TaskPriority.URGENT;
+                case "High" -> TaskPriority.HIGH;
+                case "Medium" -> TaskPriority.MEDIUM;
+                case "Low" -> TaskPriority.LOW;
+                default -> null;
+            };
+            filter = filter.and(t -> priority != null && t.getPriority() == priority);
         }
         
-        taskData.addAll(filtered);
+        showTasks(filter);
+    }
+    
+    // Tampilkan task yang lolos filter; filter disimpan untuk patch dari observer
+    private void showTasks(Predicate<Task> filter) {
+        activeFilter = filter;
+        taskData.setAll(taskManager.getAllTasks().stream().filter(filter).toList());
+    }
+    
+    // Terapkan delta dari TaskManager: hanya baris yang berubah yang disentuh
+    private void applyChanges(TaskChangeBatch batch) {
+        if (!batch.getRemoved().isEmpty()) {
+            taskData.removeAll(new HashSet<>(batch.getRemoved()));
+        }
+        
+        for (Task task : batch.getAdded()) {
+            if (activeFilter.test(task) && !taskData.contains(task)) {
+                taskData.add(task);
+            }
+        }
+        
+        boolean needsRefresh = false;
+        for (Task task : batch.getUpdated()) {
+            boolean shown = taskData.contains(task);
+            boolean matches = activeFilter.test(task);
+            if (matches && !shown) {
+                taskData.add(task);
+            } else if (!matches && shown) {
+                taskData.remove(task);
+            } else if (shown) {
+                needsRefresh = true;
+            }
+        }
+        
+        if (needsRefresh && taskTable != null) {
+            taskTable.refresh();
+        }
+    }
+    
+    private void runOnFxThread(Runnable action) {
+        if (Platform.isFxApplicationThread()) {
+            action.run();
+        } else {
+            Platform.runLater(action);
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -164,17 +234,17 @@ public class TasksViewWithDB {
                                 taskManager.updateTask(task);
                             }
                             
-                            // ⭐ SAVE TO DATABASE
-                            System.out.println("💾 Saving completed task to database...");
-                            taskDAO.updateTask(task.getId(), task);
+                            // ⭐ SAVE TO DATABASE (write-behind)
+                            System.out.println("💾 Queueing completed task for database...");
+                            writeBehind.queueTaskUpdate(task.getId(), task);
                             
                             showXPRewardNotification(task);
                         } else if (!checkBox.isSelected()) {
                             task.setStatus(TaskStatus.TODO);
                             taskManager.updateTask(task);
                             
-                            // ⭐ SAVE TO DATABASE
-                            taskDAO.updateTask(task.getId(), task);
+                            // ⭐ SAVE TO DATABASE (write-behind)
+                            writeBehind.queueTaskUpdate(task.getId(), task);
                         }
                         table.refresh();
                     });
@@ -295,8 +365,7 @@ public class TasksViewWithDB {
                         confirm.showAndWait().ifPresent(response -> {
                             if (response == ButtonType.OK) {
                                 // Remove from manager
-                                taskManager.removeTask(task);
-                                taskData.remove(task);
+                                taskManager.removeTask(task); // baris tabel dihapus oleh observer
                                 
                                 // ⭐ DELETE FROM DATABASE
                                 System.out.println("💾 Deleting task from database...");
@@ -402,8 +471,7 @@ public class TasksViewWithDB {
         
         dialog.showAndWait().ifPresent(task -> {
             // Add to manager
-            taskManager.addTask(task);
-            taskData.add(task);
+            taskManager.addTask(task); // baris tabel ditambahkan oleh observer
             
             // ⭐ SAVE TO DATABASE
             System.out.println("💾 Saving new task to database...");
@@ -470,24 +538,38 @@ public class TasksViewWithDB {
             if (saved) {
                 taskManager.updateTask(task);
                 
-                // ⭐ SAVE TO DATABASE
-                System.out.println("💾 Updating task in database...");
-                taskDAO.updateTask(task.getId(), task);
+                // ⭐ SAVE TO DATABASE (write-behind)
+                System.out.println("💾 Queueing task update for database...");
+                writeBehind.queueTaskUpdate(task.getId(), task);
                 
                 taskTable.refresh();
             }
         });
     }
     
+    // Pencarian lewat indeks FTS5 di database (urut relevansi), hasilnya dipetakan
+    // ke objek Task milik TaskManager berdasarkan id
     private void searchTasks(String query) {
-        if (query.isEmpty()) {
-            taskData.setAll(taskManager.getAllTasks());
-        } else {
-            taskData.setAll(taskManager.getAllTasks().stream()
-                .filter(t -> t.getTitle().toLowerCase().contains(query.toLowerCase()) ||
-                            t.getDescription().toLowerCase().contains(query.toLowerCase()))
-                .toList());
+        if (query.isBlank()) {
+            showTasks(t -> true);
+            return;
+        }
+        
+        // edit yang masih di antrian ditulis dulu supaya indeks FTS memuat judul terbaru
+        writeBehind.flush();
+        
+        List<Task> matches = new ArrayList<>();
+        for (SearchResult result : taskDAO.searchTaskIds(currentUserId, query, SEARCH_LIMIT)) {
+            Task task = taskManager.getTaskById(result.getId());
+            if (task != null) {
+                matches.add(task);
+            }
         }
+        
+        Set<Task> matched = Collections.newSetFromMap(new IdentityHashMap<>());
+        matched.addAll(matches);
+        activeFilter = matched::contains;
+        taskData.setAll(matches);
     }
     
     public BorderPane getView() {